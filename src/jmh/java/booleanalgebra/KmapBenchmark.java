@@ -0,0 +1,111 @@
+package booleanalgebra;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static booleanalgebra.TermType.DONT_CARE;
+import static booleanalgebra.TermType.MIN_TERM;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KmapBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shape {
+        @Param({"2", "4", "6", "8", "12", "16"})
+        int variables;
+
+        @Param({"0.1", "0.5"})
+        double density;
+
+        @Param({"0.0", "0.1"})
+        double dontCareRatio;
+
+        int[] terms, dontCares;
+        KmapBuilder builder;
+        Kmap kmap;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            var random = new Random(variables * 31L + 7);
+            terms = IntStream.range(0, 1 << variables)
+                    .filter(i -> random.nextDouble() < density)
+                    .toArray();
+            dontCares = IntStream.range(0, 1 << variables)
+                    .filter(i -> random.nextDouble() < dontCareRatio)
+                    .toArray();
+            builder = KmapBuilder.withNumberOfVariables(variables)
+                    .andTermsAt(MIN_TERM, terms)
+                    .andTermsAt(DONT_CARE, dontCares);
+            kmap = builder.build();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Solving {
+        @Param({"SUM_OF_PRODUCTS", "PRODUCT_OF_SUMS"})
+        SolutionType solutionType;
+
+        @Param({"KARNAUGH", "ESPRESSO"})
+        Engine engine;
+
+        KmapBuilder builder;
+        Kmap kmap;
+
+        @Setup(Level.Trial)
+        public void setUp(Shape shape) {
+            SolutionCache.shared().setMaximumSize(0);
+            builder = KmapBuilder.withNumberOfVariables(shape.variables)
+                    .andTermsAt(MIN_TERM, shape.terms)
+                    .andTermsAt(DONT_CARE, shape.dontCares)
+                    .withEngine(engine);
+            kmap = builder.buildSparse();
+        }
+    }
+
+    @Benchmark
+    public Kmap build(Shape shape) {
+        return shape.builder.build();
+    }
+
+    @Benchmark
+    public List<Cube> solve(Solving solving) {
+        return solving.engine.minimize(solving.kmap, solving.solutionType);
+    }
+
+    @Benchmark
+    public String minimize(Solving solving) {
+        return solving.builder.buildSparse().minimize(solving.solutionType);
+    }
+
+    @Benchmark
+    public String solveAll(Solving solving) {
+        return solving.builder.buildSparse().solveAll(solving.solutionType);
+    }
+
+    @Benchmark
+    public String format(Shape shape) {
+        return shape.kmap.toString(Options.values());
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
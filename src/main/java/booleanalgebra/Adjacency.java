@@ -0,0 +1,33 @@
+package booleanalgebra;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+final class Adjacency {
+    private static final AtomicReferenceArray<int[][]> TABLES = new AtomicReferenceArray<>(Integer.SIZE * Integer.SIZE);
+
+    private Adjacency() {
+    }
+
+    static int[][] of(int rowWidth, int columnWidth) {
+        int slot = rowWidth * Integer.SIZE + columnWidth;
+        var neighbours = TABLES.get(slot);
+        if (neighbours != null)
+            return neighbours;
+        TABLES.compareAndSet(slot, null, build(1 << rowWidth, 1 << columnWidth));
+        return TABLES.get(slot);
+    }
+
+    private static int[][] build(int rows, int columns) {
+        var neighbours = new int[Direction.values().length][rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int position = row * columns + column;
+                neighbours[Direction.UP.ordinal()][position] = (row == 0 ? rows - 1 : row - 1) * columns + column;
+                neighbours[Direction.RIGHT.ordinal()][position] = row * columns + (column == columns - 1 ? 0 : column + 1);
+                neighbours[Direction.DOWN.ordinal()][position] = (row == rows - 1 ? 0 : row + 1) * columns + column;
+                neighbours[Direction.LEFT.ordinal()][position] = row * columns + (column == 0 ? columns - 1 : column - 1);
+            }
+        }
+        return neighbours;
+    }
+}
@@ -0,0 +1,108 @@
+package booleanalgebra;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.Spliterator.NONNULL;
+
+public final class BatchMinimizer {
+    private static final ThreadLocal<SolverContext> CONTEXTS = ThreadLocal.withInitial(SolverContext::new);
+
+    private final Executor executor;
+    private Engine engine = Engine.KARNAUGH;
+    private Duration timeLimit;
+    private int maxInFlight = Runtime.getRuntime().availableProcessors() * 2;
+
+    private BatchMinimizer(Executor executor) {
+        this.executor = executor;
+    }
+
+    public static BatchMinimizer withExecutor(Executor executor) {
+        return new BatchMinimizer(Objects.requireNonNull(executor, "executor cannot be null"));
+    }
+
+    public static BatchMinimizer withCommonPool() {
+        return withExecutor(ForkJoinPool.commonPool());
+    }
+
+    public BatchMinimizer withEngine(Engine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    public BatchMinimizer withTimeLimit(Duration timeLimit) {
+        this.timeLimit = timeLimit;
+        return this;
+    }
+
+    public BatchMinimizer withMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0)
+            throw new IllegalStateException("maxInFlight must be positive");
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    public Stream<MinimizationResult> minimize(Stream<FunctionSpec> specs, SolutionType solutionType) {
+        return minimize(specs.iterator(), solutionType).onClose(specs::close);
+    }
+
+    public Stream<MinimizationResult> minimize(Iterator<FunctionSpec> specs, SolutionType solutionType) {
+        var results = new Results(specs, solutionType);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, NONNULL), false)
+                .onClose(results::cancel);
+    }
+
+    private final class Results implements Iterator<MinimizationResult> {
+        private final Iterator<FunctionSpec> specs;
+        private final SolutionType solutionType;
+        private final CompletionService<MinimizationResult> completed = new ExecutorCompletionService<>(executor);
+        private final Set<Future<MinimizationResult>> inFlight = new HashSet<>();
+        private long sequence;
+
+        Results(Iterator<FunctionSpec> specs, SolutionType solutionType) {
+            this.specs = specs;
+            this.solutionType = solutionType;
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !inFlight.isEmpty();
+        }
+
+        @Override
+        public MinimizationResult next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            try {
+                var future = completed.take();
+                inFlight.remove(future);
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new IllegalStateException("interrupted while waiting for a result", e);
+            } catch (ExecutionException e) {
+                cancel();
+                throw new IllegalStateException("minimization failed", e.getCause());
+            }
+        }
+
+        private void fill() {
+            while (inFlight.size() < maxInFlight && specs.hasNext()) {
+                var spec = specs.next();
+                long number = sequence++;
+                inFlight.add(completed.submit(() -> new MinimizationResult(number, spec,
+                        spec.toBuilder().withEngine(engine).withTimeLimit(timeLimit).buildSparse().minimize(solutionType, CONTEXTS.get()))));
+            }
+        }
+
+        void cancel() {
+            inFlight.forEach(future -> future.cancel(true));
+            inFlight.clear();
+        }
+    }
+}
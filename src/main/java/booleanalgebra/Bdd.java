@@ -0,0 +1,106 @@
+package booleanalgebra;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class Bdd extends DecisionDiagram {
+    private static final int AND = 0, OR = 1, NOT = 2;
+
+    private final int numberOfVariables;
+
+    Bdd(int numberOfVariables) {
+        this.numberOfVariables = numberOfVariables;
+    }
+
+    @Override
+    boolean isRedundant(int low, int high) {
+        return low == high;
+    }
+
+    int getNumberOfVariables() {
+        return numberOfVariables;
+    }
+
+    int cube(Cube cube) {
+        int result = ONE;
+        for (int variable = numberOfVariables - 1; variable >= 0; variable--) {
+            long bit = Cube.bitOf(variable, numberOfVariables);
+            if ((cube.getMask() & bit) != 0)
+                result = (cube.getValue() & bit) != 0 ? node(variable, ZERO, result) : node(variable, result, ZERO);
+        }
+        return result;
+    }
+
+    int and(int a, int b) {
+        if (a == ZERO || b == ZERO)
+            return ZERO;
+        if (a == ONE || a == b)
+            return b;
+        if (b == ONE)
+            return a;
+        return apply(AND, Math.min(a, b), Math.max(a, b));
+    }
+
+    int or(int a, int b) {
+        if (a == ONE || b == ONE)
+            return ONE;
+        if (a == ZERO || a == b)
+            return b;
+        if (b == ZERO)
+            return a;
+        return apply(OR, Math.min(a, b), Math.max(a, b));
+    }
+
+    int not(int a) {
+        if (isTerminal(a))
+            return a ^ 1;
+        int result = cached(NOT, a, 0);
+        if (result >= 0)
+            return result;
+        return cache(NOT, a, 0, node(variable(a), not(low(a)), not(high(a))));
+    }
+
+    private int apply(int operation, int a, int b) {
+        int result = cached(operation, a, b);
+        if (result >= 0)
+            return result;
+        int variable = Math.min(variable(a), variable(b));
+        int a0 = variable(a) == variable ? low(a) : a, a1 = variable(a) == variable ? high(a) : a;
+        int b0 = variable(b) == variable ? low(b) : b, b1 = variable(b) == variable ? high(b) : b;
+        int low = operation == AND ? and(a0, b0) : or(a0, b0);
+        int high = operation == AND ? and(a1, b1) : or(a1, b1);
+        return cache(operation, a, b, node(variable, low, high));
+    }
+
+    boolean implies(int a, int b) {
+        return and(a, not(b)) == ZERO;
+    }
+
+    double density(int f) {
+        return density(f, new HashMap<>());
+    }
+
+    double density(int f, Map<Integer, Double> memo) {
+        if (isTerminal(f))
+            return f;
+        var known = memo.get(f);
+        if (known != null)
+            return known;
+        double density = (density(low(f), memo) + density(high(f), memo)) / 2;
+        memo.put(f, density);
+        return density;
+    }
+
+    long anyMinTerm(int f) {
+        long index = 0;
+        while (!isTerminal(f)) {
+            if (low(f) != ZERO)
+                f = low(f);
+            else {
+                index |= Cube.bitOf(variable(f), numberOfVariables);
+                f = high(f);
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,105 @@
+package booleanalgebra;
+
+import java.util.*;
+
+final class BddEngine implements MinimizationEngine {
+
+    @Override
+    public List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares) {
+        var bdd = new Bdd(numberOfVariables);
+        int on = minTerms(bdd, terms, 0, terms.length);
+        return minimize(bdd, on, bdd.or(on, minTerms(bdd, dontCares, 0, dontCares.length)));
+    }
+
+    private static int minTerms(Bdd bdd, int[] indexes, int from, int to) {
+        if (from == to)
+            return Bdd.ZERO;
+        if (to - from == 1)
+            return bdd.cube(Cube.ofMinTerm(indexes[from], bdd.getNumberOfVariables()));
+        int middle = (from + to) >>> 1;
+        return bdd.or(minTerms(bdd, indexes, from, middle), minTerms(bdd, indexes, middle, to));
+    }
+
+    static List<Cube> primeImplicants(int numberOfVariables, int[] terms, int[] dontCares) {
+        var bdd = new Bdd(numberOfVariables);
+        var zdd = new Zdd();
+        int allowed = bdd.or(minTerms(bdd, terms, 0, terms.length), minTerms(bdd, dontCares, 0, dontCares.length));
+        return cubes(zdd, primes(bdd, zdd, allowed, new HashMap<>()), numberOfVariables);
+    }
+
+    static List<Cube> minimize(Bdd bdd, int on, int allowed) {
+        long grouping = Metrics.start();
+        var zdd = new Zdd();
+        int primes = primes(bdd, zdd, allowed, new HashMap<>());
+        Metrics.time(Phase.GROUPING, grouping);
+        Metrics.count(Counter.IMPLICANTS, zdd.count(primes));
+        long reduction = Metrics.start();
+        var cover = irredundant(bdd, on, cover(bdd, zdd, on, primes));
+        Metrics.time(Phase.REDUCTION, reduction);
+        return cover;
+    }
+
+    private static List<Cube> cubes(Zdd zdd, int family, int numberOfVariables) {
+        var cubes = new ArrayList<Cube>();
+        zdd.forEachSet(family, numberOfVariables, (positives, negatives) -> cubes.add(new Cube(positives, positives | negatives)));
+        return cubes;
+    }
+
+    private static int primes(Bdd bdd, Zdd zdd, int f, Map<Integer, Integer> memo) {
+        if (bdd.isTerminal(f))
+            return f;
+        var known = memo.get(f);
+        if (known != null)
+            return known;
+        int low = bdd.low(f), high = bdd.high(f), variable = bdd.variable(f);
+        int common = primes(bdd, zdd, bdd.and(low, high), memo);
+        int negative = zdd.difference(primes(bdd, zdd, low, memo), common);
+        int positive = zdd.difference(primes(bdd, zdd, high, memo), common);
+        int result = zdd.node(2 * variable, zdd.node(2 * variable + 1, common, negative), positive);
+        memo.put(f, result);
+        return result;
+    }
+
+    private static List<Cube> cover(Bdd bdd, Zdd zdd, int on, int primes) {
+        int numberOfVariables = bdd.getNumberOfVariables();
+        var cover = new ArrayList<Cube>();
+        var densities = new HashMap<Integer, Double>();
+        int uncovered = on;
+        while (uncovered != Bdd.ZERO) {
+            long index = bdd.anyMinTerm(uncovered);
+            Cube best = null;
+            int bestDiagram = Bdd.ZERO;
+            double bestGain = 0;
+            for (var prime : cubes(zdd, zdd.consistentWith(primes, index, numberOfVariables), numberOfVariables)) {
+                Metrics.count(Counter.GROUP_CANDIDATES, 1);
+                int diagram = bdd.cube(prime);
+                double gain = bdd.density(bdd.and(diagram, uncovered), densities);
+                if (best == null || gain > bestGain || gain == bestGain && prime.literalCount() < best.literalCount()) {
+                    best = prime;
+                    bestDiagram = diagram;
+                    bestGain = gain;
+                }
+            }
+            cover.add(Objects.requireNonNull(best));
+            uncovered = bdd.and(uncovered, bdd.not(bestDiagram));
+        }
+        return cover;
+    }
+
+    private static List<Cube> irredundant(Bdd bdd, int on, List<Cube> cover) {
+        var sorted = new ArrayList<>(cover);
+        sorted.sort(Comparator.comparingInt(Cube::literalCount).reversed());
+        int[] diagrams = sorted.stream().mapToInt(bdd::cube).toArray(), after = new int[diagrams.length + 1];
+        for (int i = diagrams.length - 1; i >= 0; i--)
+            after[i] = bdd.or(after[i + 1], diagrams[i]);
+        var result = new ArrayList<Cube>();
+        int kept = Bdd.ZERO;
+        for (int i = 0; i < diagrams.length; i++) {
+            if (bdd.implies(bdd.and(diagrams[i], on), bdd.or(kept, after[i + 1])))
+                continue;
+            result.add(sorted.get(i));
+            kept = bdd.or(kept, diagrams[i]);
+        }
+        return result;
+    }
+}
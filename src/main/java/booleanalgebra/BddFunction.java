@@ -0,0 +1,88 @@
+package booleanalgebra;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static booleanalgebra.SolutionType.SUM_OF_PRODUCTS;
+import static booleanalgebra.TermType.*;
+import static java.util.Objects.isNull;
+
+public final class BddFunction {
+    private final List<String> variables;
+    private final Bdd bdd;
+    private int terms = Bdd.ZERO, dontCares = Bdd.ZERO;
+    private TermType termType = MIN_TERM;
+
+    private BddFunction(List<String> variables) {
+        if (variables.size() < 2 || variables.size() > Long.SIZE)
+            throw new IllegalStateException("number of variables must be between 2 and " + Long.SIZE);
+        this.variables = variables;
+        bdd = new Bdd(variables.size());
+    }
+
+    public static BddFunction withNumberOfVariables(int numberOfVariables) {
+        var vars = new String[numberOfVariables];
+        for (int i = 0; i < numberOfVariables; i++)
+            vars[i] = numberOfVariables > 26 ? "X" + i : String.valueOf((char) ('A' + i));
+        return new BddFunction(List.of(vars));
+    }
+
+    public static BddFunction withVariables(String var1, String... vars) {
+        if (isNull(vars))
+            throw new IllegalStateException("vars cannot be null");
+        var all = new String[vars.length + 1];
+        all[0] = var1;
+        System.arraycopy(vars, 0, all, 1, vars.length);
+        return new BddFunction(List.of(all));
+    }
+
+    public BddFunction andGrayCodeTerms(TermType termType, String... gcTerms) {
+        if (termType == DONT_CARE)
+            return andDontCareGrayCodes(gcTerms);
+        this.termType = termType;
+        terms = union(gcTerms);
+        return this;
+    }
+
+    public BddFunction andDontCareGrayCodes(String... gcTerms) {
+        dontCares = bdd.or(dontCares, union(gcTerms));
+        return this;
+    }
+
+    private int union(String[] gcTerms) {
+        return Arrays.stream(gcTerms)
+                .mapToInt(gcTerm -> bdd.cube(toCube(gcTerm)))
+                .reduce(Bdd.ZERO, bdd::or);
+    }
+
+    private Cube toCube(String grayCode) {
+        int n = variables.size();
+        if (grayCode.length() != n)
+            throw new IllegalStateException("Invalid input format! Too few, or too many variables");
+        long value = 0, mask = 0;
+        for (int i = 0; i < n; i++) {
+            char c = grayCode.charAt(i);
+            if (c != '0' && c != '1' && c != '-')
+                throw new IllegalStateException("Invalid input format! " + grayCode + " is not a gray code");
+            if (c != '-') {
+                mask |= Cube.bitOf(i, n);
+                value |= c == '1' ? Cube.bitOf(i, n) : 0;
+            }
+        }
+        return new Cube(value, mask);
+    }
+
+    public int getNodeCount() {
+        return bdd.nodeCount(terms, dontCares);
+    }
+
+    public String minimize(SolutionType solutionType) {
+        return getSolution(solutionType).toString();
+    }
+
+    public Solution getSolution(SolutionType solutionType) {
+        var target = solutionType == SUM_OF_PRODUCTS ? MIN_TERM : MAX_TERM;
+        int on = termType == target ? bdd.and(terms, bdd.not(dontCares)) : bdd.not(bdd.or(terms, dontCares));
+        return new Solution(solutionType, variables, BddEngine.minimize(bdd, on, bdd.or(on, dontCares)));
+    }
+}
@@ -0,0 +1,168 @@
+package booleanalgebra;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static booleanalgebra.MappedFile.skipWhitespace;
+import static booleanalgebra.TermType.MIN_TERM;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+public final class BlifReader {
+    private static final int MAX_INPUTS = 30;
+    private static final long[] INPUT_PATTERNS = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+
+    private final List<String> inputs = new ArrayList<>(), outputs = new ArrayList<>();
+    private final Map<String, Names> nodes = new HashMap<>();
+    private final StringBuilder pending = new StringBuilder();
+    private Names current;
+    private boolean ended;
+
+    private static final class Names {
+        final String[] fanIns;
+        final LongStream.Builder values = LongStream.builder(), masks = LongStream.builder();
+        boolean onSet = true;
+
+        Names(String[] fanIns) {
+            this.fanIns = fanIns;
+        }
+    }
+
+    private BlifReader() {
+    }
+
+    public static Map<String, KmapBuilder> read(Path path) {
+        var reader = new BlifReader();
+        MappedFile.forEachLine(path, reader::accept);
+        return reader.toBuilders();
+    }
+
+    private void accept(byte[] line, int length) {
+        int start = skipWhitespace(line, 0, length);
+        if (ended || start == length || line[start] == '#')
+            return;
+        if (line[start] == '.' || pending.length() > 0) {
+            var text = new String(line, start, length - start, US_ASCII).trim();
+            if (text.endsWith("\\")) {
+                pending.append(text, 0, text.length() - 1).append(' ');
+                return;
+            }
+            directive(pending.append(text).toString().split("\\s+"));
+            pending.setLength(0);
+        } else
+            cube(line, start, length);
+    }
+
+    private void directive(String[] tokens) {
+        current = null;
+        switch (tokens[0]) {
+            case ".model":
+                break;
+            case ".inputs":
+                inputs.addAll(Arrays.asList(tokens).subList(1, tokens.length));
+                break;
+            case ".outputs":
+                outputs.addAll(Arrays.asList(tokens).subList(1, tokens.length));
+                break;
+            case ".names":
+                if (tokens.length < 2 || tokens.length > Long.SIZE + 1)
+                    throw new IllegalStateException("Invalid input format! .names needs an output and at most 64 inputs");
+                current = new Names(Arrays.copyOfRange(tokens, 1, tokens.length - 1));
+                nodes.put(tokens[tokens.length - 1], current);
+                break;
+            case ".exdc":
+            case ".end":
+                ended = true;
+                break;
+            default:
+                throw new IllegalStateException(tokens[0] + " is not supported");
+        }
+    }
+
+    private void cube(byte[] line, int position, int length) {
+        if (current == null)
+            throw new IllegalStateException("Invalid input format! cube outside of .names");
+        long value = 0, mask = 0;
+        int width = current.fanIns.length;
+        for (int k = 0; k < width; k++, position++) {
+            long bit = 1L << k;
+            switch (position < length ? line[position] : -1) {
+                case '0':
+                    mask |= bit;
+                    break;
+                case '1':
+                    value |= bit;
+                    mask |= bit;
+                    break;
+                case '-':
+                    break;
+                default:
+                    throw new IllegalStateException("Invalid input format! " + new String(line, 0, length, US_ASCII));
+            }
+        }
+        position = skipWhitespace(line, position, length);
+        if (position == length || line[position] != '0' && line[position] != '1')
+            throw new IllegalStateException("Invalid input format! " + new String(line, 0, length, US_ASCII));
+        current.onSet = line[position] == '1';
+        current.values.add(value);
+        current.masks.add(mask);
+    }
+
+    private Map<String, KmapBuilder> toBuilders() {
+        if (inputs.size() < 2 || inputs.size() > MAX_INPUTS)
+            throw new IllegalStateException("a BLIF model needs between 2 and " + MAX_INPUTS + " inputs");
+        int n = inputs.size(), words = Math.max(1, (1 << n) >>> 6);
+        long tail = n < 6 ? Cube.fullMask(1 << n) : -1L;
+        var tables = new HashMap<String, long[]>();
+        for (int i = 0; i < n; i++)
+            tables.put(inputs.get(i), inputTable(n - i - 1, words, tail));
+        var variables = inputs.subList(1, n).toArray(String[]::new);
+        var builders = new LinkedHashMap<String, KmapBuilder>();
+        for (var output : outputs) {
+            var table = evaluate(output, tables, new HashSet<>(), words, tail);
+            builders.put(output, KmapBuilder.withVariables(inputs.get(0), variables)
+                    .andTermsAt(MIN_TERM, BitSet.valueOf(table).stream().toArray()));
+        }
+        return builders;
+    }
+
+    private static long[] inputTable(int bit, int words, long tail) {
+        var table = new long[words];
+        for (int w = 0; w < words; w++)
+            table[w] = bit < 6 ? INPUT_PATTERNS[bit] & tail : ((long) w << 6 >>> bit & 1) != 0 ? -1L : 0;
+        return table;
+    }
+
+    private long[] evaluate(String signal, Map<String, long[]> tables, Set<String> visiting, int words, long tail) {
+        var table = tables.get(signal);
+        if (table != null)
+            return table;
+        var names = nodes.get(signal);
+        if (names == null)
+            throw new IllegalStateException(signal + " is never driven");
+        if (!visiting.add(signal))
+            throw new IllegalStateException(signal + " is part of a combinational cycle");
+        var fanIns = new long[names.fanIns.length][];
+        for (int k = 0; k < fanIns.length; k++)
+            fanIns[k] = evaluate(names.fanIns[k], tables, visiting, words, tail);
+        long[] values = names.values.build().toArray(), masks = names.masks.build().toArray();
+        table = new long[words];
+        for (int w = 0; w < words; w++) {
+            long word = 0;
+            for (int c = 0; c < values.length; c++) {
+                long product = tail;
+                for (int k = 0; k < fanIns.length && product != 0; k++)
+                    if ((masks[c] >>> k & 1) != 0)
+                        product &= (values[c] >>> k & 1) != 0 ? fanIns[k][w] : ~fanIns[k][w];
+                word |= product;
+            }
+            table[w] = names.onSet ? word : ~word & tail;
+        }
+        visiting.remove(signal);
+        tables.put(signal, table);
+        return table;
+    }
+}
@@ -0,0 +1,71 @@
+package booleanalgebra;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static booleanalgebra.SolutionType.SUM_OF_PRODUCTS;
+
+final class CompiledCover {
+    private static final long[] LOW_PATTERNS = {
+            0xAAAAAAAAAAAAAAAAL, 0xCCCCCCCCCCCCCCCCL, 0xF0F0F0F0F0F0F0F0L,
+            0xFF00FF00FF00FF00L, 0xFFFF0000FFFF0000L, 0xFFFFFFFF00000000L
+    };
+    private static final int LOW_BITS = 6, CHUNK = 1 << 10;
+
+    private final long[] highMasks, highValues, lowWords;
+
+    CompiledCover(int numberOfVariables, List<Cube> cubes) {
+        highMasks = new long[cubes.size()];
+        highValues = new long[cubes.size()];
+        lowWords = new long[cubes.size()];
+        int lowVariables = Math.min(numberOfVariables, LOW_BITS);
+        for (int c = 0; c < cubes.size(); c++) {
+            var cube = cubes.get(c);
+            highMasks[c] = cube.getMask() >>> LOW_BITS;
+            highValues[c] = cube.getValue() >>> LOW_BITS;
+            long word = -1L;
+            for (int bit = 0; bit < lowVariables; bit++)
+                if ((cube.getMask() >>> bit & 1) != 0)
+                    word &= (cube.getValue() >>> bit & 1) != 0 ? LOW_PATTERNS[bit] : ~LOW_PATTERNS[bit];
+            lowWords[c] = word;
+        }
+    }
+
+    long evaluate(long word) {
+        long result = 0;
+        for (int c = 0; c < lowWords.length; c++)
+            if ((word & highMasks[c]) == highValues[c])
+                result |= lowWords[c];
+        return result;
+    }
+
+    static long firstMismatch(Kmap kmap, SolutionType solutionType, List<Cube> cubes) {
+        var truthTable = kmap.TRUTH_TABLE;
+        int n = truthTable.getNumberOfVariables();
+        long[] on = toWords(truthTable.termsOf(SUM_OF_PRODUCTS), n), dontCares = toWords(truthTable.getDontCares(), n);
+        var cover = new CompiledCover(n, cubes);
+        long tail = n < LOW_BITS ? Cube.fullMask(1 << n) : -1L;
+        boolean sumOfProducts = solutionType == SUM_OF_PRODUCTS;
+        int chunks = (on.length + CHUNK - 1) / CHUNK;
+        var stream = LongStream.range(0, chunks);
+        return (chunks > 1 ? stream.parallel() : stream)
+                .map(chunk -> {
+                    for (int w = (int) chunk * CHUNK, last = Math.min(on.length, w + CHUNK); w < last; w++) {
+                        long expected = sumOfProducts ? on[w] : ~on[w] & ~dontCares[w];
+                        long mismatch = (cover.evaluate(w) ^ expected) & ~dontCares[w] & tail;
+                        if (mismatch != 0)
+                            return ((long) w << LOW_BITS) + Long.numberOfTrailingZeros(mismatch);
+                    }
+                    return Long.MAX_VALUE;
+                })
+                .min()
+                .orElse(Long.MAX_VALUE);
+    }
+
+    private static long[] toWords(int[] indexes, int numberOfVariables) {
+        var words = new long[Math.max(1, (1 << numberOfVariables) >>> LOW_BITS)];
+        for (int index : indexes)
+            words[index >>> LOW_BITS] |= 1L << index;
+        return words;
+    }
+}
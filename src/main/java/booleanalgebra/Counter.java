@@ -0,0 +1,9 @@
+package booleanalgebra;
+
+public enum Counter {
+    GROUP_CANDIDATES,
+    IMPLICANTS,
+    CACHE_HITS,
+    CACHE_MISSES,
+    STORE_HITS
+}
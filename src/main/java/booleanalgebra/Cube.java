@@ -0,0 +1,99 @@
+package booleanalgebra;
+
+import java.util.List;
+import java.util.function.LongConsumer;
+
+public final class Cube {
+    private final long value, mask;
+
+    Cube(long value, long mask) {
+        this.value = value & mask;
+        this.mask = mask;
+    }
+
+    static Cube ofMinTerm(long index, int numberOfVariables) {
+        return new Cube(index, fullMask(numberOfVariables));
+    }
+
+    static long fullMask(int numberOfVariables) {
+        return numberOfVariables >= Long.SIZE ? -1L : (1L << numberOfVariables) - 1;
+    }
+
+    static long bitOf(int variable, int numberOfVariables) {
+        return 1L << (numberOfVariables - variable - 1);
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public long getMask() {
+        return mask;
+    }
+
+    Cube merge(long index) {
+        return new Cube(value, mask & ~(value ^ index));
+    }
+
+    Cube complement() {
+        return new Cube(~value, mask);
+    }
+
+    public boolean covers(long index) {
+        return (index & mask) == value;
+    }
+
+    boolean contains(Cube other) {
+        return (other.mask & mask) == mask && (other.value & mask) == value;
+    }
+
+    boolean isPositive(long bit) {
+        return (mask & value & bit) != 0;
+    }
+
+    public int literalCount() {
+        return Long.bitCount(mask);
+    }
+
+    void forEachMinTerm(int numberOfVariables, LongConsumer action) {
+        long free = fullMask(numberOfVariables) & ~mask;
+        for (long sub = free; ; sub = (sub - 1) & free) {
+            action.accept(value | sub);
+            if (sub == 0)
+                break;
+        }
+    }
+
+    String toString(List<String> variables, String delimiter) {
+        var sb = new StringBuilder();
+        for (int i = 0, n = variables.size(); i < n; i++) {
+            long bit = bitOf(i, n);
+            if ((mask & bit) == 0)
+                continue;
+            if (sb.length() > 0)
+                sb.append(delimiter);
+            sb.append((value & bit) != 0 ? variables.get(i) : KmapBuilder.complement(variables.get(i)));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof Cube) {
+            Cube cube = (Cube) o;
+            return value == cube.value && mask == cube.mask;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value * 31 + mask);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toBinaryString(value) + "/" + Long.toBinaryString(mask);
+    }
+}
@@ -0,0 +1,125 @@
+package booleanalgebra;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+
+abstract class DecisionDiagram {
+    static final int ZERO = 0, ONE = 1;
+    private static final int TERMINAL = Integer.MAX_VALUE, MAX_CACHE_SIZE = 1 << 20;
+
+    private int[] variables = new int[1 << 10], lows = new int[1 << 10], highs = new int[1 << 10];
+    private int size = 2;
+    private int[] unique = new int[1 << 11];
+    private int[] cacheKeys, cacheValues;
+
+    DecisionDiagram() {
+        variables[ZERO] = variables[ONE] = TERMINAL;
+        Arrays.fill(unique, -1);
+        resizeCache(unique.length);
+    }
+
+    private void resizeCache(int size) {
+        cacheKeys = new int[size * 3];
+        cacheValues = new int[size];
+        Arrays.fill(cacheKeys, -1);
+    }
+
+    abstract boolean isRedundant(int low, int high);
+
+    final int variable(int node) {
+        return variables[node];
+    }
+
+    final int low(int node) {
+        return lows[node];
+    }
+
+    final int high(int node) {
+        return highs[node];
+    }
+
+    final boolean isTerminal(int node) {
+        return node <= ONE;
+    }
+
+    final int nodeCount(int... roots) {
+        var reached = new BitSet(size);
+        var pending = new ArrayDeque<Integer>();
+        for (int root : roots)
+            pending.push(root);
+        while (!pending.isEmpty()) {
+            int node = pending.pop();
+            if (isTerminal(node) || reached.get(node))
+                continue;
+            reached.set(node);
+            pending.push(lows[node]);
+            pending.push(highs[node]);
+        }
+        return reached.cardinality();
+    }
+
+    final int node(int variable, int low, int high) {
+        if (isRedundant(low, high))
+            return low;
+        int mask = unique.length - 1;
+        for (int slot = hash(variable, low, high) & mask; ; slot = (slot + 1) & mask) {
+            int candidate = unique[slot];
+            if (candidate < 0)
+                return insert(slot, variable, low, high);
+            if (variables[candidate] == variable && lows[candidate] == low && highs[candidate] == high)
+                return candidate;
+        }
+    }
+
+    private int insert(int slot, int variable, int low, int high) {
+        if (size == variables.length) {
+            variables = Arrays.copyOf(variables, size << 1);
+            lows = Arrays.copyOf(lows, size << 1);
+            highs = Arrays.copyOf(highs, size << 1);
+        }
+        int created = size++;
+        variables[created] = variable;
+        lows[created] = low;
+        highs[created] = high;
+        unique[slot] = created;
+        if (size * 2 > unique.length)
+            rehash();
+        return created;
+    }
+
+    private void rehash() {
+        unique = new int[unique.length << 1];
+        Arrays.fill(unique, -1);
+        if (unique.length <= MAX_CACHE_SIZE)
+            resizeCache(unique.length);
+        int mask = unique.length - 1;
+        for (int node = 2; node < size; node++) {
+            int slot = hash(variables[node], lows[node], highs[node]) & mask;
+            while (unique[slot] >= 0)
+                slot = (slot + 1) & mask;
+            unique[slot] = node;
+        }
+    }
+
+    final int cached(int operation, int a, int b) {
+        int slot = hash(operation, a, b) & (cacheValues.length - 1);
+        if (cacheKeys[slot * 3] == operation && cacheKeys[slot * 3 + 1] == a && cacheKeys[slot * 3 + 2] == b)
+            return cacheValues[slot];
+        return -1;
+    }
+
+    final int cache(int operation, int a, int b, int result) {
+        int slot = hash(operation, a, b) & (cacheValues.length - 1);
+        cacheKeys[slot * 3] = operation;
+        cacheKeys[slot * 3 + 1] = a;
+        cacheKeys[slot * 3 + 2] = b;
+        cacheValues[slot] = result;
+        return result;
+    }
+
+    private static int hash(int a, int b, int c) {
+        int hash = a * 0x9E3779B1 + b * 0x85EBCA77 + c * 0xC2B2AE3D;
+        return hash ^ hash >>> 15;
+    }
+}
@@ -0,0 +1,37 @@
+package booleanalgebra;
+
+import java.time.Duration;
+import java.util.List;
+
+public enum Engine {
+    KARNAUGH(new GridEngine()),
+    QUINE_MCCLUSKEY(new QuineMcCluskey()),
+    ESPRESSO(new Espresso()),
+    BDD(new BddEngine());
+
+    private final MinimizationEngine engine;
+
+    Engine(MinimizationEngine engine) {
+        this.engine = engine;
+    }
+
+    List<Cube> minimize(Kmap kmap, SolutionType solutionType) {
+        return engine.minimize(kmap, solutionType);
+    }
+
+    List<Cube> minimize(Kmap kmap, SolutionType solutionType, SolverContext context) {
+        return engine.minimize(kmap, solutionType, context);
+    }
+
+    List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares) {
+        return engine.minimize(numberOfVariables, terms, dontCares);
+    }
+
+    List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares, Duration timeLimit) {
+        return engine.minimize(numberOfVariables, terms, dontCares, timeLimit);
+    }
+
+    List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares, Duration timeLimit, SolverContext context) {
+        return engine.minimize(numberOfVariables, terms, dontCares, timeLimit, context);
+    }
+}
@@ -0,0 +1,168 @@
+package booleanalgebra;
+
+import java.time.Duration;
+import java.util.*;
+
+final class Espresso implements MinimizationEngine {
+
+    @Override
+    public List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares) {
+        return minimize(numberOfVariables, terms, dontCares, new SolverContext());
+    }
+
+    @Override
+    public List<Cube> minimize(Kmap kmap, SolutionType solutionType, SolverContext context) {
+        return minimize(kmap.VARIABLES.size(), kmap.TRUTH_TABLE.termsOf(solutionType), kmap.TRUTH_TABLE.getDontCares(), context);
+    }
+
+    @Override
+    public List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares, Duration timeLimit, SolverContext context) {
+        return minimize(numberOfVariables, terms, dontCares, context);
+    }
+
+    private static List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares, SolverContext context) {
+        context.checkOwner();
+        long grouping = Metrics.start();
+        var seeds = context.groups();
+        for (int term : terms)
+            seeds.add(Cube.ofMinTerm(term, numberOfVariables));
+        return refine(numberOfVariables, seeds, terms, dontCares, context, grouping);
+    }
+
+    static List<Cube> refine(int numberOfVariables, List<Cube> seeds, int[] terms, int[] dontCares) {
+        return refine(numberOfVariables, seeds, terms, dontCares, new SolverContext(), Metrics.start());
+    }
+
+    static List<Cube> refine(int numberOfVariables, List<Cube> seeds, int[] terms, int[] dontCares, SolverContext context, long grouping) {
+        var allowed = context.allowed();
+        var uncovered = context.uncovered();
+        for (int term : terms) {
+            allowed.set(term);
+            uncovered.set(term);
+        }
+        for (int dontCare : dontCares)
+            allowed.set(dontCare);
+        var cover = new ArrayList<Cube>();
+        for (var seed : seeds) {
+            if (isCovered(seed, numberOfVariables, uncovered))
+                continue;
+            if (isInside(seed, numberOfVariables, allowed)) {
+                cover.add(grow(seed, numberOfVariables, allowed, uncovered));
+                continue;
+            }
+            long free = Cube.fullMask(numberOfVariables) & ~seed.getMask();
+            for (long sub = free; ; sub = (sub - 1) & free) {
+                long index = seed.getValue() | sub;
+                if (uncovered.get((int) index))
+                    cover.add(grow(Cube.ofMinTerm(index, numberOfVariables), numberOfVariables, allowed, uncovered));
+                if (sub == 0)
+                    break;
+            }
+        }
+        Metrics.time(Phase.GROUPING, grouping);
+        Metrics.count(Counter.IMPLICANTS, cover.size());
+        long reduction = Metrics.start();
+        irredundant(cover, numberOfVariables, terms, context.counts(terms.length));
+        Metrics.time(Phase.REDUCTION, reduction);
+        return cover;
+    }
+
+    private static Cube grow(Cube seed, int numberOfVariables, BitSet allowed, BitSet uncovered) {
+        var cube = expand(seed, numberOfVariables, allowed, uncovered);
+        long free = Cube.fullMask(numberOfVariables) & ~cube.getMask();
+        for (long sub = free; ; sub = (sub - 1) & free) {
+            uncovered.clear((int) (cube.getValue() | sub));
+            if (sub == 0)
+                return cube;
+        }
+    }
+
+    private static boolean isInside(Cube seed, int numberOfVariables, BitSet allowed) {
+        long free = Cube.fullMask(numberOfVariables) & ~seed.getMask();
+        for (long sub = free; ; sub = (sub - 1) & free) {
+            if (!allowed.get((int) (seed.getValue() | sub)))
+                return false;
+            if (sub == 0)
+                return true;
+        }
+    }
+
+    private static boolean isCovered(Cube seed, int numberOfVariables, BitSet uncovered) {
+        long free = Cube.fullMask(numberOfVariables) & ~seed.getMask();
+        for (long sub = free; ; sub = (sub - 1) & free) {
+            if (uncovered.get((int) (seed.getValue() | sub)))
+                return false;
+            if (sub == 0)
+                return true;
+        }
+    }
+
+    private static Cube expand(Cube cube, int numberOfVariables, BitSet allowed, BitSet uncovered) {
+        long value = cube.getValue(), mask = cube.getMask();
+        while (true) {
+            long best = 0;
+            int bestGain = -1;
+            Metrics.count(Counter.GROUP_CANDIDATES, Long.bitCount(mask));
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                long half = (value ^ (bits & -bits)) & mask;
+                int gain = gain(half, mask, numberOfVariables, allowed, uncovered);
+                if (gain > bestGain) {
+                    best = half;
+                    bestGain = gain;
+                }
+            }
+            if (bestGain < 0)
+                return value == cube.getValue() && mask == cube.getMask() ? cube : new Cube(value, mask);
+            mask &= ~(value ^ best);
+            value &= mask;
+        }
+    }
+
+    private static int gain(long value, long mask, int numberOfVariables, BitSet allowed, BitSet uncovered) {
+        int gain = 0;
+        long free = Cube.fullMask(numberOfVariables) & ~mask;
+        for (long sub = free; ; sub = (sub - 1) & free) {
+            int index = (int) (value | sub);
+            if (!allowed.get(index))
+                return -1;
+            if (uncovered.get(index))
+                gain++;
+            if (sub == 0)
+                return gain;
+        }
+    }
+
+    private static void irredundant(List<Cube> cover, int numberOfVariables, int[] terms, int[] coverCount) {
+        for (var cube : cover)
+            forEachTerm(cube, numberOfVariables, terms, coverCount, 1);
+        cover.sort(Comparator.comparingInt(Cube::literalCount).reversed());
+        cover.removeIf(cube -> {
+            if (!isRedundant(cube, numberOfVariables, terms, coverCount))
+                return false;
+            forEachTerm(cube, numberOfVariables, terms, coverCount, -1);
+            return true;
+        });
+    }
+
+    private static boolean isRedundant(Cube cube, int numberOfVariables, int[] terms, int[] coverCount) {
+        long free = Cube.fullMask(numberOfVariables) & ~cube.getMask();
+        for (long sub = free; ; sub = (sub - 1) & free) {
+            int term = Arrays.binarySearch(terms, (int) (cube.getValue() | sub));
+            if (term >= 0 && coverCount[term] <= 1)
+                return false;
+            if (sub == 0)
+                return true;
+        }
+    }
+
+    private static void forEachTerm(Cube cube, int numberOfVariables, int[] terms, int[] coverCount, int delta) {
+        long free = Cube.fullMask(numberOfVariables) & ~cube.getMask();
+        for (long sub = free; ; sub = (sub - 1) & free) {
+            int term = Arrays.binarySearch(terms, (int) (cube.getValue() | sub));
+            if (term >= 0)
+                coverCount[term] += delta;
+            if (sub == 0)
+                break;
+        }
+    }
+}
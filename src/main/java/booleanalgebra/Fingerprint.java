@@ -0,0 +1,86 @@
+package booleanalgebra;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+import static booleanalgebra.SolutionType.SUM_OF_PRODUCTS;
+
+final class Fingerprint {
+    private final int numberOfVariables;
+    private final SolutionType solutionType;
+    private final Engine engine;
+    private final BitSet onSet, dontCares;
+    private final Duration timeLimit;
+    private final int hash;
+
+    Fingerprint(int numberOfVariables, SolutionType solutionType, Engine engine, BitSet onSet, BitSet dontCares, Duration timeLimit) {
+        this.numberOfVariables = numberOfVariables;
+        this.solutionType = solutionType;
+        this.engine = engine;
+        this.onSet = onSet;
+        this.dontCares = dontCares;
+        this.timeLimit = timeLimit;
+        this.hash = Objects.hash(numberOfVariables, solutionType, engine, onSet, dontCares, timeLimit);
+    }
+
+    static Fingerprint of(TruthTable truthTable, SolutionType solutionType, Engine engine, Duration timeLimit) {
+        return new Fingerprint(truthTable.getNumberOfVariables(), solutionType, engine,
+                toBitSet(truthTable.termsOf(SUM_OF_PRODUCTS)), toBitSet(truthTable.getDontCares()), timeLimit);
+    }
+
+    static Fingerprint of(NpnCanonicalForm form, SolutionType canonicalSolutionType, Engine engine, Duration timeLimit) {
+        return new Fingerprint(form.getNumberOfVariables(), canonicalSolutionType, engine,
+                BitSet.valueOf(new long[] {form.getOnSet()}), BitSet.valueOf(new long[] {form.getDontCares()}), timeLimit);
+    }
+
+    long bytes() {
+        return ((long) onSet.size() + dontCares.size()) / Byte.SIZE;
+    }
+
+    byte[] toBytes() {
+        long[] on = onSet.toLongArray(), dc = dontCares.toLongArray();
+        var out = ByteBuffer.allocate(3 + 3 * 10 + Long.BYTES * (on.length + dc.length))
+                .put((byte) numberOfVariables)
+                .put((byte) solutionType.ordinal())
+                .put((byte) engine.ordinal());
+        for (long[] words : new long[][] {on, dc}) {
+            KmapCodec.writeVarLong(words.length, out);
+            for (long word : words)
+                out.putLong(word);
+        }
+        if (timeLimit != null)
+            KmapCodec.writeVarLong(timeLimit.toNanos(), out);
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    private static BitSet toBitSet(int[] indexes) {
+        var bits = new BitSet(indexes.length == 0 ? 0 : indexes[indexes.length - 1] + 1);
+        for (int index : indexes)
+            bits.set(index);
+        return bits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof Fingerprint) {
+            Fingerprint that = (Fingerprint) o;
+            return hash == that.hash
+                    && numberOfVariables == that.numberOfVariables
+                    && solutionType == that.solutionType
+                    && engine == that.engine
+                    && onSet.equals(that.onSet)
+                    && dontCares.equals(that.dontCares)
+                    && Objects.equals(timeLimit, that.timeLimit);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,36 @@
+package booleanalgebra;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class FunctionSpec {
+    private final List<String> variables;
+    private final TermType termType;
+    private final int[] indexes;
+
+    private FunctionSpec(List<String> variables, TermType termType, int[] indexes) {
+        if (variables.size() < 2)
+            throw new IllegalStateException("a function needs at least two variables");
+        this.variables = variables;
+        this.termType = termType;
+        this.indexes = indexes;
+    }
+
+    public static FunctionSpec of(List<String> variables, TermType termType, int... indexes) {
+        return new FunctionSpec(List.copyOf(variables), termType, indexes.clone());
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    KmapBuilder toBuilder() {
+        return KmapBuilder.withVariables(variables.get(0), variables.subList(1, variables.size()).toArray(String[]::new))
+                .andTermsAt(termType, indexes);
+    }
+
+    @Override
+    public String toString() {
+        return variables + " " + termType + " " + Arrays.toString(indexes);
+    }
+}
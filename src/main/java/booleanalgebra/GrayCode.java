@@ -0,0 +1,56 @@
+package booleanalgebra;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+final class GrayCode {
+    private static final AtomicReferenceArray<int[][]> TABLES = new AtomicReferenceArray<>(Integer.SIZE);
+
+    private GrayCode() {
+    }
+
+    static int[] codes(int width) {
+        return tables(width)[0];
+    }
+
+    static int[] inverses(int width) {
+        return tables(width)[1];
+    }
+
+    private static int[][] tables(int width) {
+        if (width <= 0)
+            throw new IllegalStateException("n cannot be non-positive");
+        var tables = TABLES.get(width);
+        if (tables != null)
+            return tables;
+        int[] codes = new int[1 << width], inverses = new int[1 << width];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = i ^ (i >> 1);
+            inverses[codes[i]] = i;
+        }
+        TABLES.compareAndSet(width, null, new int[][]{codes, inverses});
+        return TABLES.get(width);
+    }
+
+    static int row(int index, int rowWidth) {
+        return inverses(rowWidth)[index & ((1 << rowWidth) - 1)];
+    }
+
+    static int column(int index, int rowWidth, int columnWidth) {
+        return inverses(columnWidth)[index >>> rowWidth];
+    }
+
+    static String[] strings(int width) {
+        int[] codes = codes(width);
+        var strings = new String[codes.length];
+        for (int i = 0; i < codes.length; i++)
+            strings[i] = toString(codes[i], width);
+        return strings;
+    }
+
+    static String toString(int code, int width) {
+        var chars = new char[width];
+        for (int i = 0; i < width; i++)
+            chars[i] = (code & (1 << (width - i - 1))) != 0 ? '1' : '0';
+        return new String(chars);
+    }
+}
@@ -0,0 +1,37 @@
+package booleanalgebra;
+
+import java.time.Duration;
+import java.util.List;
+
+final class GridEngine implements MinimizationEngine {
+
+    @Override
+    public List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares) {
+        return minimize(numberOfVariables, terms, dontCares, null, new SolverContext());
+    }
+
+    @Override
+    public List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares, Duration timeLimit, SolverContext context) {
+        if (numberOfVariables < 2)
+            return new QuineMcCluskey().minimize(numberOfVariables, terms, dontCares);
+        int columnWidth = ((numberOfVariables - 1) >> 1) + 1;
+        return solve(numberOfVariables - columnWidth, columnWidth, terms, dontCares, context);
+    }
+
+    @Override
+    public List<Cube> minimize(Kmap kmap, SolutionType solutionType) {
+        return minimize(kmap, solutionType, new SolverContext());
+    }
+
+    @Override
+    public List<Cube> minimize(Kmap kmap, SolutionType solutionType, SolverContext context) {
+        return solve(kmap.ROW_VARIABLES.size(), kmap.COLUMN_VARIABLES.size(),
+                kmap.TRUTH_TABLE.termsOf(solutionType), kmap.TRUTH_TABLE.getDontCares(), context);
+    }
+
+    private static List<Cube> solve(int rowWidth, int columnWidth, int[] terms, int[] dontCares, SolverContext context) {
+        long grouping = Metrics.start();
+        var groups = new KmapSolver(rowWidth, columnWidth, terms, dontCares, context).getSolution();
+        return Espresso.refine(rowWidth + columnWidth, groups, terms, dontCares, context, grouping);
+    }
+}
@@ -1,64 +1,172 @@
 package booleanalgebra;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
 
-import static booleanalgebra.KmapBuilder.complement;
 import static booleanalgebra.Options.VALUES;
-import static booleanalgebra.SolutionType.PRODUCT_OF_SUMS;
-import static booleanalgebra.SolutionType.SUM_OF_PRODUCTS;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.*;
 
 public final class Kmap {
 
-    final List<String> ROW_VARIABLES, COLUMN_VARIABLES, ROW_GRAY_CODE, COLUMN_GRAY_CODE;
-    final Node[][] MAP;
-    Set<Node> minTerms, maxTerms;
-    private KmapSolver minSolver, maxSolver;
+    final List<String> ROW_VARIABLES, COLUMN_VARIABLES, ROW_GRAY_CODE, COLUMN_GRAY_CODE, VARIABLES;
+    final TruthTable TRUTH_TABLE;
+    final Engine ENGINE;
+    final Duration TIME_LIMIT;
+    final int PARALLELISM;
+    private final BiFunction<Integer, Integer, Node> cells;
+    private final Map<SolutionType, List<Cube>> solutions = new EnumMap<>(SolutionType.class);
+    private final Map<SolutionType, Solution> solutionViews = new EnumMap<>(SolutionType.class);
+    private final Map<SolutionType, Map<String, Solution>> outputSolutions = new EnumMap<>(SolutionType.class);
 
-    Kmap (String[] ROW_VARIABLES, String[] COLUMN_VARIABLES, String[] ROW_GRAY_CODE, String[] COLUMN_GRAY_CODE, Node[][] MAP, Set<Node> minTerms, Set<Node> maxTerms) {
+    Kmap (String[] ROW_VARIABLES, String[] COLUMN_VARIABLES, String[] ROW_GRAY_CODE, String[] COLUMN_GRAY_CODE, TruthTable TRUTH_TABLE, BiFunction<Integer, Integer, Node> cells, Engine ENGINE, Duration TIME_LIMIT, int PARALLELISM) {
         this.ROW_VARIABLES = new ArrayList<>(Arrays.asList(ROW_VARIABLES));
         this.COLUMN_VARIABLES = new ArrayList<>(Arrays.asList(COLUMN_VARIABLES));
         this.ROW_GRAY_CODE = new ArrayList<>(Arrays.asList(ROW_GRAY_CODE));
         this.COLUMN_GRAY_CODE = new ArrayList<>(Arrays.asList(COLUMN_GRAY_CODE));
-        this.MAP = MAP;
-        this.minTerms = minTerms;
-        this.maxTerms = maxTerms;
+        this.VARIABLES = new ArrayList<>(this.COLUMN_VARIABLES);
+        this.VARIABLES.addAll(this.ROW_VARIABLES);
+        this.TRUTH_TABLE = TRUTH_TABLE;
+        this.cells = cells;
+        this.ENGINE = ENGINE;
+        this.TIME_LIMIT = TIME_LIMIT;
+        this.PARALLELISM = PARALLELISM;
+    }
+
+    Node getNode(int row, int column) {
+        return cells.apply(row, column);
+    }
+
+    Node getNodeAt(int index) {
+        int rowWidth = ROW_VARIABLES.size(), columnWidth = COLUMN_VARIABLES.size();
+        return getNode(GrayCode.row(index, rowWidth), GrayCode.column(index, rowWidth, columnWidth));
     }
 
 
     public String minimize(SolutionType solutionType) {
-        return initialiseSolver(solutionType).getSolution().stream()
-                .map(solutionType::group)
-                .collect(joining(solutionType.OUTER_DELIMITER));
+        return minimize(solutionType, null);
+    }
+
+    public String minimize(SolutionType solutionType, SolverContext context) {
+        return getSolution(solutionType, context).toString();
+    }
+
+    public Solution getSolution(SolutionType solutionType) {
+        return getSolution(solutionType, null);
+    }
+
+    public Solution getSolution(SolutionType solutionType, SolverContext context) {
+        return solutionViews.computeIfAbsent(solutionType, type -> new Solution(type, VARIABLES, solve(type, context)));
     }
 
     public String solveFor(String variable, SolutionType solutionType) {
-        return variable + " = " + initialiseSolver(solutionType).getSolution().stream()
-                .filter(term -> term.contains(solutionType == PRODUCT_OF_SUMS ? complement(variable) : variable))
-                .map(term -> Arrays.stream(term.split(solutionType.getInnerRegex()))
-                        .filter(var -> COLUMN_VARIABLES.stream()
-                                .anyMatch(var::contains))
-                        .collect(joining(solutionType.INNER_DELIMITER)))
-                .filter(group -> !group.isEmpty())
-                .map(solutionType::group)
-                .collect(joining(solutionType.OUTER_DELIMITER)) + "\n";
+        return solveFor(variable, solutionType, ForkJoinPool.commonPool());
+    }
+
+    public String solveFor(String variable, SolutionType solutionType, ForkJoinPool pool) {
+        if (!ROW_VARIABLES.contains(variable))
+            throw new IllegalStateException(variable + " is not an output variable");
+        return variable + " = " + getOutputSolutions(solutionType, pool).get(variable) + "\n";
     }
+
     public String solveAll(SolutionType solutionType) {
-        return ROW_VARIABLES.stream().map(variable -> solveFor(variable, solutionType)).collect(joining());
+        return solveAll(solutionType, ForkJoinPool.commonPool());
     }
 
-    private KmapSolver initialiseSolver(SolutionType solutionType) {
-        if(solutionType == SUM_OF_PRODUCTS) {
-            if (minSolver == null)
-                minSolver = new KmapSolver(this, solutionType, minTerms);
-            return minSolver;
-        }
-        else if(maxSolver == null) maxSolver = new KmapSolver(this, solutionType, maxTerms);
-        return maxSolver;
+    public String solveAll(SolutionType solutionType, ForkJoinPool pool) {
+        return ROW_VARIABLES.stream().map(variable -> solveFor(variable, solutionType, pool)).collect(joining());
+    }
+
+    public Map<String, Solution> getOutputSolutions(SolutionType solutionType) {
+        return getOutputSolutions(solutionType, ForkJoinPool.commonPool());
+    }
+
+    public synchronized Map<String, Solution> getOutputSolutions(SolutionType solutionType, ForkJoinPool pool) {
+        return outputSolutions.computeIfAbsent(solutionType, type -> {
+            var cubes = new MultiOutputMinimizer(this, type).minimize(ENGINE, TIME_LIMIT, pool);
+            var views = new LinkedHashMap<String, Solution>();
+            for (int output = 0; output < ROW_VARIABLES.size(); output++)
+                views.put(ROW_VARIABLES.get(output), new Solution(type, COLUMN_VARIABLES, cubes.get(output)));
+            return Collections.unmodifiableMap(views);
+        });
+    }
+
+    public boolean verify(SolutionType solutionType) {
+        return CompiledCover.firstMismatch(this, solutionType, solve(solutionType)) == Long.MAX_VALUE;
+    }
+
+    List<Cube> solve(SolutionType solutionType) {
+        return solve(solutionType, null);
+    }
+
+    List<Cube> solve(SolutionType solutionType, SolverContext context) {
+        return solutions.computeIfAbsent(solutionType, type -> {
+            var cache = SolutionCache.shared();
+            var fingerprint = Fingerprint.of(TRUTH_TABLE, type, ENGINE, TIME_LIMIT);
+            if (!NpnCanonicalForm.supports(VARIABLES.size()))
+                return cache.get(fingerprint, () -> ENGINE.minimize(this, type, orNew(context)));
+            var solution = cache.find(fingerprint);
+            if (solution == null) {
+                solution = solveCanonically(type, context);
+                cache.put(fingerprint, solution);
+            }
+            return solution;
+        });
+    }
+
+    private static SolverContext orNew(SolverContext context) {
+        return context != null ? context : new SolverContext();
+    }
+
+    void seed(SolutionType solutionType, List<Cube> solution) {
+        solutions.put(solutionType, List.copyOf(solution));
+        solutionViews.remove(solutionType);
+    }
+
+    private List<Cube> solveCanonically(SolutionType solutionType, SolverContext context) {
+        var form = NpnCanonicalForm.of(TRUTH_TABLE);
+        var canonicalType = form.canonicalSolutionType(solutionType);
+        return SolutionCache.shared()
+                .get(Fingerprint.of(form, canonicalType, ENGINE, TIME_LIMIT), () -> ENGINE.minimize(
+                        VARIABLES.size(), form.termsOf(canonicalType), form.dontCareIndexes(), TIME_LIMIT, orNew(context)))
+                .stream()
+                .map(form::toOriginal)
+                .collect(toUnmodifiableList());
     }
 
     public String toString(Options... options) {
-        return Arrays.stream(options).map(o -> new KmapFormatter(this).toString(o)).collect(joining("\n"));
+        var sb = new StringBuilder();
+        render(sb, options);
+        return sb.toString();
+    }
+
+    public void render(Appendable out, Options... options) {
+        var formatter = new KmapFormatter(this);
+        try {
+            for (int i = 0; i < options.length; i++) {
+                if (i > 0)
+                    out.append('\n');
+                formatter.render(out, options[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void render(WritableByteChannel channel, Options... options) {
+        var writer = Channels.newWriter(channel, UTF_8);
+        render(writer, options);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @Override
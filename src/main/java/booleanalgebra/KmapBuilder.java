@@ -1,25 +1,28 @@
 package booleanalgebra;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static booleanalgebra.TermType.*;
 import static java.lang.System.arraycopy;
 import static java.util.Objects.isNull;
-import static java.util.stream.Collectors.toCollection;
 
 public class KmapBuilder {
     private  final String[] rowVariables, columnVariables, rowGrayCode, columnGrayCode;
-    private final Map<TermType, Set<Integer>> TERMS = new HashMap<>();
-    private final Set<Node> minTerms, maxTerms;
+    private final int[] rowCodes, columnCodes;
+    private final Map<TermType, int[]> TERMS = new EnumMap<>(TermType.class);
+    private Engine engine = Engine.KARNAUGH;
+    private Duration timeLimit;
+    private int parallelism = 1;
 
     private KmapBuilder(String[] rowVariables, String[] columnVariables) {
         this.rowVariables = rowVariables;
         this.columnVariables = columnVariables;
-        minTerms = new HashSet<>();
-        maxTerms = new HashSet<>();
-        rowGrayCode = grayCode(rowVariables.length);
-        columnGrayCode = grayCode(columnVariables.length);
+        rowCodes = GrayCode.codes(rowVariables.length);
+        columnCodes = GrayCode.codes(columnVariables.length);
+        rowGrayCode = GrayCode.strings(rowVariables.length);
+        columnGrayCode = GrayCode.strings(columnVariables.length);
     }
 
     public static KmapBuilder withNumberOfVariables(int numberOfVariables) {
@@ -58,34 +61,63 @@ public class KmapBuilder {
         var termType = determineTermType(terms);
         this.TERMS.put(termType, Arrays.stream(terms)
                 .map(term -> getGrayCodeFromTerm(term, termType))
-                .map(this::getGrayCodeIndex)
-                .collect(Collectors.toSet()));
+                .mapToInt(this::getGrayCodeIndex)
+                .sorted()
+                .distinct()
+                .toArray());
         return this;
     }
 
     public KmapBuilder andGrayCodeTerms(TermType termType, String... gcTerms) {
         this.TERMS.put(termType, Arrays.stream(gcTerms)
-                .map(this::getGrayCodeIndex)
-                .collect(Collectors.toSet()));
+                .flatMapToInt(this::getGrayCodeIndexes)
+                .sorted()
+                .distinct()
+                .toArray());
         return this;
     }
 
-    private int getGrayCodeIndex(String grayCode) {
-        String tmpCGC = grayCode.substring(0, columnVariables.length);
-        String tmpRGC = grayCode.substring(tmpCGC.length());
-        int column = getIndexFromGrayCode(tmpCGC, columnGrayCode);
-        int row = getIndexFromGrayCode(tmpRGC, rowGrayCode);
-        return getIndex(row, column);
-    }
-
-    private int getIndexFromGrayCode(String grayCode, String[] grayCodeArray) {
-        int index = -1;
-        for (int i = 0; i < grayCodeArray.length; i++) {
-            if (grayCodeArray[i].equals(grayCode))
-                index = i;
+    public KmapBuilder andDontCares(int... indexes) {
+        CheckForOutOfBounds(indexes);
+        return addDontCares(IntStream.of(indexes));
+    }
+
+    public KmapBuilder andDontCareGrayCodes(String... gcTerms) {
+        return addDontCares(Arrays.stream(gcTerms).flatMapToInt(this::getGrayCodeIndexes));
+    }
+
+    private KmapBuilder addDontCares(IntStream indexes) {
+        TERMS.put(DONT_CARE, IntStream.concat(IntStream.of(TERMS.getOrDefault(DONT_CARE, new int[0])), indexes)
+                .sorted()
+                .distinct()
+                .toArray());
+        return this;
+    }
+
+    private IntStream getGrayCodeIndexes(String grayCode) {
+        if (grayCode.indexOf('-') < 0)
+            return IntStream.of(getGrayCodeIndex(grayCode));
+        int value = getGrayCodeIndex(grayCode.replace('-', '0')), free = 0;
+        for (int i = 0; i < grayCode.length(); i++)
+            free = free << 1 | (grayCode.charAt(i) == '-' ? 1 : 0);
+        var indexes = IntStream.builder();
+        for (int sub = free; ; sub = (sub - 1) & free) {
+            indexes.add(value | sub);
+            if (sub == 0)
+                return indexes.build();
         }
-        if(index < 0)
+    }
+
+    private int getGrayCodeIndex(String grayCode) {
+        if (grayCode.length() != rowVariables.length + columnVariables.length)
             throw new IllegalStateException("Invalid input format! Too few, or too many variables");
+        int index = 0;
+        for (int i = 0; i < grayCode.length(); i++) {
+            char c = grayCode.charAt(i);
+            if (c != '0' && c != '1')
+                throw new IllegalStateException("Invalid input format! " + grayCode + " is not a gray code");
+            index = index << 1 | c - '0';
+        }
         return index;
     }
 
@@ -115,7 +147,26 @@ public class KmapBuilder {
 
     public KmapBuilder andTermsAt(TermType termType, int... indexes) {
         CheckForOutOfBounds(indexes);
-        TERMS.put(termType, Arrays.stream(indexes).boxed().collect(toCollection(HashSet::new)));
+        TERMS.put(termType, Arrays.stream(indexes).sorted().distinct().toArray());
+        return this;
+    }
+
+    public KmapBuilder withEngine(Engine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    public KmapBuilder withTimeLimit(Duration timeLimit) {
+        if (timeLimit != null && timeLimit.isNegative())
+            throw new IllegalStateException("timeLimit cannot be negative");
+        this.timeLimit = timeLimit;
+        return this;
+    }
+
+    public KmapBuilder withParallelism(int parallelism) {
+        if (parallelism <= 0)
+            throw new IllegalStateException("parallelism must be positive");
+        this.parallelism = parallelism;
         return this;
     }
 
@@ -125,57 +176,51 @@ public class KmapBuilder {
     }
 
     private boolean withinRangeOfMap(int i) {
-        return i < 0 || i > (int) Math.pow(2, rowVariables.length + columnVariables.length);
+        return i < 0 || i >= 1L << (rowVariables.length + columnVariables.length);
     }
 
-    private Node[][] generateMap() {
-        Node[][] map = new Node[(int) Math.pow(2, rowVariables.length)][(int) Math.pow(2, columnVariables.length)];
-        for (int i = 0; i < map.length; i++) {
-            for (int j = 0; j < map[i].length; j++)
-                map[i][j] = createNode(i, j);
-        }
-        return map;
-    }
-
-    private Node createNode(int row, int column) {
+    private Node createNode(TruthTable truthTable, int row, int column) {
         int index = getIndex(row, column);
-        var termType = determineTermType(index);
+        var termType = determineTermType(truthTable.valueAt(index));
         String term = generateTerm(row, column, termType.OPERATOR);
-        Node n = new Node(row, column, index, termType.VALUE, term);
-        addNodeToAppropriateTermSet(n);
-        return n;
+        return new Node(row, column, index, termType.VALUE, term);
     }
 
-    private void addNodeToAppropriateTermSet(Node n) {
-        if(n.getValue() == '1')
-            minTerms.add(n);
-        else if(n.getValue() == '0')
-            maxTerms.add(n);
+    private TermType determineTermType(char value) {
+        for (var tt : TermType.values())
+            if (tt.VALUE == value)
+                return tt;
+        throw new IllegalStateException("unknown cell value " + value);
     }
 
-    private TermType determineTermType(int index) {
-        for(var tt : TERMS.keySet())
-            if(TERMS.get(tt).contains(index))
-                return tt;
-        return TERMS.containsKey(MIN_TERM) ? MAX_TERM : MIN_TERM;
+    private TruthTable generateTruthTable() {
+        if (TERMS.containsKey(MIN_TERM) && TERMS.containsKey(MAX_TERM))
+            throw new IllegalStateException("a map cannot be given both min terms and max terms");
+        var specifiedType = TERMS.containsKey(MIN_TERM) ? MIN_TERM : MAX_TERM;
+        return new TruthTable(
+                rowVariables.length + columnVariables.length,
+                specifiedType,
+                TERMS.getOrDefault(specifiedType, new int[0]),
+                TERMS.getOrDefault(DONT_CARE, new int[0])
+        );
     }
 
     private String generateTerm(int row, int column, char operator) {
-        var sb = generatePartialSubstring(column, columnGrayCode, columnVariables, operator)
-                .append(generatePartialSubstring(row, rowGrayCode, rowVariables, operator));
+        var sb = generatePartialSubstring(columnCodes[column], columnVariables, operator)
+                .append(generatePartialSubstring(rowCodes[row], rowVariables, operator));
         return sb.substring(0, sb.length() - 1);
     }
 
-    private StringBuilder generatePartialSubstring(int index, String[] grayCode, String[] variables, char operator) {
+    private StringBuilder generatePartialSubstring(int code, String[] variables, char operator) {
         var sb = new StringBuilder();
-        for (int i = 0; i < grayCode[index].length(); i++)
-            sb.append(isNegative(i, grayCode[index]) ? complement(variables[i]) : variables[i])
+        for (int i = 0; i < variables.length; i++)
+            sb.append(isNegative(i, code, variables.length) ? complement(variables[i]) : variables[i])
                     .append(operator);
         return sb;
     }
 
-    private boolean isNegative(int i, String s) {
-        return s.charAt(i) == '0';
+    private boolean isNegative(int i, int code, int width) {
+        return (code & (1 << (width - i - 1))) == 0;
     }
 
     static StringBuilder complement(String term) {
@@ -194,46 +239,35 @@ public class KmapBuilder {
         return sb.deleteCharAt(sb.length() - 1);
     }
 
-    private int getIndex(int i, int j) {
-        return toBinary(rowGrayCode[i], 0) + toBinary(columnGrayCode[j], rowVariables.length);
-    }
-
-    private static int pow2(int val) {
-        if(val > 0)
-            return pow2(--val) << 1;
-        return 1;
+    private int getIndex(int row, int column) {
+        return columnCodes[column] << rowVariables.length | rowCodes[row];
     }
 
-    private static int toBinary(String s, int start) {
-        int res = 0;
-        for (int i = s.length() - 1, binary = pow2(start); i >= 0; i--, binary <<= 1)
-            res += s.charAt(i) == '1' ? binary : 0;
-        return res;
+    public Kmap build() {
+        return buildSparse();
     }
 
-    private static String[] grayCode(int n) {
-        if(n <= 0)
-            throw new IllegalStateException("n cannot be non-positive");
-        if(n > 1) {
-            String[] arr = grayCode(--n), temp = new String[arr.length << 1];
-            for (int i = 0, j = 0, length = arr.length; i < length; i++, j = j != length - 1 ? j + 1 : 0) {
-                temp[i] = "0" + arr[j];
-                temp[length + i] = "1" + arr[length - j - 1];
-            }
-            return temp;
-        }
-        return new String[] {"0", "1"};
+    public MutableKmap buildMutable() {
+        var variables = new ArrayList<>(Arrays.asList(columnVariables));
+        variables.addAll(Arrays.asList(rowVariables));
+        return new MutableKmap(variables, generateTruthTable(), engine, timeLimit, parallelism);
     }
 
-    public Kmap build() {
-        return new Kmap(
+    public Kmap buildSparse() {
+        long start = Metrics.start();
+        var truthTable = generateTruthTable();
+        var kmap = new Kmap(
                 rowVariables,
                 columnVariables,
                 rowGrayCode,
                 columnGrayCode,
-                generateMap(),
-                minTerms,
-                maxTerms
+                truthTable,
+                (row, column) -> createNode(truthTable, row, column),
+                engine,
+                timeLimit,
+                parallelism
         );
+        Metrics.time(Phase.BUILD, start);
+        return kmap;
     }
 }
@@ -0,0 +1,163 @@
+package booleanalgebra;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static booleanalgebra.SolutionType.SUM_OF_PRODUCTS;
+import static booleanalgebra.TermType.MIN_TERM;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class KmapCodec {
+    static final int VERSION = 2;
+    private static final short MAGIC = 0x4B4D;
+    private static final int HAS_SOLUTION = 1, PRODUCT_OF_SUMS = 2, HAS_TIME_LIMIT = 4;
+    private static final byte INDEX_LIST = 0, BITMAP = 1;
+
+    private KmapCodec() {
+    }
+
+    public static void write(Kmap kmap, ByteBuffer out) {
+        writeHeader(kmap, 0, out);
+    }
+
+    public static void write(Kmap kmap, SolutionType solutionType, ByteBuffer out) {
+        writeHeader(kmap, HAS_SOLUTION | (solutionType == SUM_OF_PRODUCTS ? 0 : PRODUCT_OF_SUMS), out);
+        writeCubes(kmap.solve(solutionType), out);
+    }
+
+    public static Kmap read(ByteBuffer in) {
+        if (in.getShort() != MAGIC)
+            throw new IllegalStateException("not an encoded Kmap");
+        int version = in.get() & 0xFF;
+        if (version < 1 || version > VERSION)
+            throw new IllegalStateException("unsupported Kmap encoding version " + version);
+        int flags = in.get() & 0xFF;
+        int ordinal = in.get() & 0xFF;
+        if (ordinal >= Engine.values().length)
+            throw new IllegalStateException("unknown engine " + ordinal);
+        var engine = Engine.values()[ordinal];
+        Duration timeLimit = null;
+        if ((flags & HAS_TIME_LIMIT) != 0)
+            timeLimit = Duration.ofNanos(readVarLong(in));
+        int parallelism = version > 1 ? (int) readVarLong(in) : 0;
+        int numberOfVariables = in.get() & 0xFF;
+        var variables = new String[numberOfVariables];
+        for (int i = 0; i < numberOfVariables; i++) {
+            var bytes = new byte[(int) readVarLong(in)];
+            in.get(bytes);
+            variables[i] = new String(bytes, UTF_8);
+        }
+        int[] onSet = readIndexes(numberOfVariables, in), dontCares = readIndexes(numberOfVariables, in);
+        var builder = KmapBuilder.withVariables(variables[0], List.of(variables).subList(1, numberOfVariables).toArray(String[]::new))
+                .andTermsAt(MIN_TERM, onSet)
+                .andDontCares(dontCares)
+                .withEngine(engine)
+                .withTimeLimit(timeLimit);
+        if (parallelism > 0)
+            builder.withParallelism(parallelism);
+        var kmap = builder.buildSparse();
+        if ((flags & HAS_SOLUTION) != 0)
+            kmap.seed((flags & PRODUCT_OF_SUMS) == 0 ? SUM_OF_PRODUCTS : SolutionType.PRODUCT_OF_SUMS, readCubes(in));
+        return kmap;
+    }
+
+    private static void writeHeader(Kmap kmap, int flags, ByteBuffer out) {
+        int numberOfVariables = kmap.VARIABLES.size();
+        out.putShort(MAGIC)
+                .put((byte) VERSION)
+                .put((byte) (kmap.TIME_LIMIT == null ? flags : flags | HAS_TIME_LIMIT))
+                .put((byte) kmap.ENGINE.ordinal());
+        if (kmap.TIME_LIMIT != null)
+            writeVarLong(kmap.TIME_LIMIT.toNanos(), out);
+        writeVarLong(kmap.PARALLELISM, out);
+        out.put((byte) numberOfVariables);
+        for (var variable : kmap.VARIABLES) {
+            var bytes = variable.getBytes(UTF_8);
+            writeVarLong(bytes.length, out);
+            out.put(bytes);
+        }
+        writeIndexes(kmap.TRUTH_TABLE.termsOf(SUM_OF_PRODUCTS), numberOfVariables, out);
+        writeIndexes(kmap.TRUTH_TABLE.getDontCares(), numberOfVariables, out);
+    }
+
+    static void writeCubes(List<Cube> cubes, ByteBuffer out) {
+        writeVarLong(cubes.size(), out);
+        for (var cube : cubes) {
+            writeVarLong(cube.getMask(), out);
+            writeVarLong(cube.getValue(), out);
+        }
+    }
+
+    static List<Cube> readCubes(ByteBuffer in) {
+        int size = (int) readVarLong(in);
+        var cubes = new ArrayList<Cube>(size);
+        for (int i = 0; i < size; i++) {
+            long mask = readVarLong(in);
+            cubes.add(new Cube(readVarLong(in), mask));
+        }
+        return cubes;
+    }
+
+    private static void writeIndexes(int[] indexes, int numberOfVariables, ByteBuffer out) {
+        int bitmapBytes = ((1 << numberOfVariables) + 7) >>> 3;
+        if (listSize(indexes) <= bitmapBytes) {
+            out.put(INDEX_LIST);
+            writeVarLong(indexes.length, out);
+            for (int i = 0, previous = -1; i < indexes.length; previous = indexes[i++])
+                writeVarLong(indexes[i] - previous - 1, out);
+            return;
+        }
+        out.put(BITMAP);
+        var bitmap = new byte[bitmapBytes];
+        for (int index : indexes)
+            bitmap[index >>> 3] |= 1 << (index & 7);
+        out.put(bitmap);
+    }
+
+    private static int[] readIndexes(int numberOfVariables, ByteBuffer in) {
+        byte encoding = in.get();
+        if (encoding == INDEX_LIST) {
+            var indexes = new int[(int) readVarLong(in)];
+            for (int i = 0, previous = -1; i < indexes.length; previous = indexes[i++])
+                indexes[i] = previous + 1 + (int) readVarLong(in);
+            return indexes;
+        }
+        if (encoding != BITMAP)
+            throw new IllegalStateException("unknown index encoding " + encoding);
+        var bitmap = new byte[((1 << numberOfVariables) + 7) >>> 3];
+        in.get(bitmap);
+        return BitSet.valueOf(bitmap).stream().toArray();
+    }
+
+    private static int listSize(int[] indexes) {
+        int size = varLongSize(indexes.length);
+        for (int i = 0, previous = -1; i < indexes.length; previous = indexes[i++])
+            size += varLongSize(indexes[i] - previous - 1);
+        return size;
+    }
+
+    private static int varLongSize(long value) {
+        return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+    static void writeVarLong(long value, ByteBuffer out) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+    }
+}
@@ -1,150 +1,141 @@
 package booleanalgebra;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static booleanalgebra.Options.VALUES;
 
 class KmapFormatter {
-    Kmap kmap;
-    String rowPadding;
-    String[] columnPadding, noPadding = new String[] {"",""};
-    StringBuilder sb = new StringBuilder();
-    int lengthOfRowAndColumn;
-    String delimiter = " | ";
-    Options nodeField;
+    private static final String DELIMITER = " | ";
+    private static final String[] NO_PADDING = new String[] {"", ""};
+
+    private final Kmap kmap;
+    private final Node origin;
+    private final String variableList, rowPadding;
+    private final Map<Options, Layout> layouts = new EnumMap<>(Options.class);
+    private final StringBuilder row = new StringBuilder();
 
     KmapFormatter(Kmap kmap) {
         this.kmap = kmap;
+        this.origin = kmap.getNode(0, 0);
+        this.variableList = join(kmap.ROW_VARIABLES) + "\\" + join(kmap.COLUMN_VARIABLES);
+        this.rowPadding = " ".repeat(variableList.length() - kmap.ROW_GRAY_CODE.get(0).length());
     }
 
-
-    private StringBuilder appendVariableList() {
-        sb = appendVariables(kmap.ROW_VARIABLES);
-        sb.append("\\");
-        sb = appendVariables(kmap.COLUMN_VARIABLES);
-        rowPadding = rowPadding();
-        columnPadding = setColumnPaddingForGrayCode();
-        lengthOfRowAndColumn = lengthOfRowAndColumn();
-        sb.append(delimiter);
-        return sb;
+    private static String join(List<String> variables) {
+        return String.join("", variables);
     }
 
-    private StringBuilder appendVariables(List<String> columnVariables) {
-        for (String s : columnVariables)
-            sb.append(s);
-        return sb;
-    }
+    private final class Layout {
+        final Options nodeField;
+        final String reference, columnGrayCode, bar;
+        final String[] columnPadding;
 
-    private String[] setColumnPaddingForGrayCode() {
-        return columnGrayCodeIsLongerThanCellData() ? noPadding : columnPadding();
-    }
+        Layout(Options nodeField) {
+            this.nodeField = nodeField;
+            this.reference = nodeField.from(origin);
+            var headerPadding = columnGrayCodeIsLongerThanCellData() ? NO_PADDING : columnPadding();
+            this.columnGrayCode = appendColumnGrayCode(new StringBuilder(variableList).append(DELIMITER), headerPadding);
+            this.bar = "\n" + rowPadding + "-".repeat(lengthOfRowAndColumn(headerPadding)) + "\n";
+            this.columnPadding = columnGrayCodeIsLongerThanCellData() ? columnPadding() : NO_PADDING;
+        }
 
-    public String toString() {
-        return toString(VALUES);
-    }
+        private String appendColumnGrayCode(StringBuilder sb, String[] padding) {
+            for (int j = 0; j < kmap.COLUMN_GRAY_CODE.size(); j++) {
+                if (j > 0)
+                    sb.append(DELIMITER);
+                sb.append(center(kmap.COLUMN_GRAY_CODE.get(0), kmap.COLUMN_GRAY_CODE.get(j), padding));
+            }
+            return sb.toString();
+        }
 
-    private String rowPadding() {
-        return " ".repeat(sb.length() - kmap.ROW_GRAY_CODE.get(0).length());
-    }
+        private int lengthOfRowAndColumn(String[] padding) {
+            return kmap.COLUMN_GRAY_CODE.get(0).length()
+                    * kmap.COLUMN_GRAY_CODE.size()
+                    + DELIMITER.length() * kmap.COLUMN_GRAY_CODE.size()
+                    + kmap.COLUMN_GRAY_CODE.size()
+                    * (padding[0].length() + padding[1].length())
+                    + kmap.ROW_GRAY_CODE.get(0).length();
+        }
 
-    private StringBuilder appendBar() {
-        return sb.append("\n")
-                .append(rowPadding)
-                .append("-".repeat(lengthOfRowAndColumn))
-                .append("\n");
-    }
+        private String[] columnPadding() {
+            int length = Math.abs(kmap.COLUMN_VARIABLES.size()
+                    - reference.length()
+                    + getOverLineCount());
+            int left = isOdd(length) ? (length >> 1) + 1 : length >> 1;
+            int right = length - left;
+            return new String[] {
+                    " ".repeat(left),
+                    " ".repeat(right)
+            };
+        }
 
-    private int lengthOfRowAndColumn() {
-        return kmap.COLUMN_GRAY_CODE.get(0).length()
-                * kmap.COLUMN_GRAY_CODE.size()
-                + delimiter.length() * kmap.COLUMN_GRAY_CODE.size()
-                + kmap.COLUMN_GRAY_CODE.size()
-                * (columnPadding[0].length() + columnPadding[1].length())
-                + kmap.ROW_GRAY_CODE.get(0).length();
-    }
+        private int getOverLineCount() {
+            int count = 0;
+            for (char c : reference.toCharArray())
+                count += c == '\u0305' ? 1 : 0;
+            return count;
+        }
+
+        private boolean columnGrayCodeIsLongerThanCellData() {
+            return kmap.COLUMN_VARIABLES.size() > reference.length();
+        }
 
-    private String[] columnPadding() {
-        int length = Math.abs(kmap.COLUMN_VARIABLES.size()
-                - nodeField.from(kmap.MAP[0][0]).length()
-                + getOverLineCount());
-        int left = isOdd(length) ? (length >> 1) + 1 : length >> 1;
-        int right = length - left;
-        return new String[] {
-                " ".repeat(left),
-                " ".repeat(right)
-        };
+        private String removeZero(Node node) {
+            String field = nodeField.from(node);
+            if (nodeField.equals(VALUES) && field.equals("0"))
+                field = " ";
+            return field;
+        }
     }
 
-    private boolean isOdd(int length) {
+    private static boolean isOdd(int length) {
         return (length & 1) == 1;
     }
 
-    private int getOverLineCount() {
-        int count = 0;
-        for(char c : nodeField.from(kmap.MAP[0][0]).toCharArray()) {
-            count += c == '\u0305' ? 1 : 0;
-        }
-        return count;
+    private static String center(String reference, String s, String[] padding) {
+        if (isNotANumber(s.charAt(0)))
+            return padding[0] + s + padding[1];
+        int offset = padding[0].length() - (s.length() - reference.length());
+        return " ".repeat(offset) + s + padding[1];
     }
 
-    private String center(String reference, String s) {
-        if(isNotANumber(s.charAt(0)))
-            return columnPadding[0] + s + columnPadding[1];
-        int offset = columnPadding[0].length() - (s.length() - reference.length());
-        return " ".repeat(offset) + s + columnPadding[1];
+    private static boolean isNotANumber(char c) {
+        return c < 48 || c > 57;
     }
 
-    private boolean isNotANumber(char c) {
-        return c < 48 || c > 57;
+    public String toString() {
+        return toString(VALUES);
     }
 
     String toString(Options options) {
-        this.nodeField = options;
-        sb = appendVariableList();
-        sb = appendColumnGrayCode();
-        sb = appendBar();
-        columnPadding = columnGrayCodeIsLongerThanCellData() ? columnPadding() : noPadding;
-        sb = appendMainData();
+        var sb = new StringBuilder();
+        render(sb, options);
         return sb.toString();
     }
 
-    private StringBuilder appendMainData() {
-        for (int i = 0; i < kmap.MAP.length; i++) {
-            sb = appendCurrentRowGrayCode(i);
-            for(Node node : kmap.MAP[i])
-                sb = appendNode(node);
-            sb = removeLastDelimiter();
-            sb = appendBar();
+    void render(Appendable out, Options options) {
+        long start = Metrics.start();
+        var layout = layouts.computeIfAbsent(options, Layout::new);
+        try {
+            out.append(layout.columnGrayCode).append(layout.bar);
+            for (int i = 0; i < kmap.ROW_GRAY_CODE.size(); i++) {
+                row.setLength(0);
+                row.append(rowPadding).append(kmap.ROW_GRAY_CODE.get(i)).append(DELIMITER);
+                for (int j = 0; j < kmap.COLUMN_GRAY_CODE.size(); j++) {
+                    if (j > 0)
+                        row.append(DELIMITER);
+                    row.append(center(layout.reference, layout.removeZero(kmap.getNode(i, j)), layout.columnPadding));
+                }
+                out.append(row.append(layout.bar));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            Metrics.time(Phase.FORMATTING, start);
         }
-        return sb;
-    }
-
-    private StringBuilder removeLastDelimiter() {
-        return sb.delete(sb.length() - delimiter.length(), sb.length());
-    }
-
-    private StringBuilder appendNode(Node node) {
-        return sb.append(center(nodeField.from(kmap.MAP[0][0]), removeZero(node))).append(delimiter);
-    }
-
-    private String removeZero(Node node) {
-        String field = nodeField.from(node);
-        if(nodeField.equals(VALUES) && field.equals("0"))
-            field = " ";
-        return field;
-    }
-
-    private StringBuilder appendCurrentRowGrayCode(int i) {
-        return sb.append(rowPadding).append(kmap.ROW_GRAY_CODE.get(i)).append(delimiter);
-    }
-
-    private StringBuilder appendColumnGrayCode() {
-        for(String s : kmap.COLUMN_GRAY_CODE)
-            sb.append(center(kmap.COLUMN_GRAY_CODE.get(0), s)).append(delimiter);
-        return removeLastDelimiter();
-    }
-
-    private boolean columnGrayCodeIsLongerThanCellData() {
-        return kmap.COLUMN_VARIABLES.size() > nodeField.from(kmap.MAP[0][0]).length();
     }
 }
@@ -1,159 +1,155 @@
 package booleanalgebra;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 
 final class KmapSolver {
-    private final SolutionType solutionType;
-    private final Node[][] MAP;
-    private final int[] BOUNDARIES;
-    private Set<Node> terms;
-    private final List<String> solution;
-
-    public KmapSolver(Kmap kmap, SolutionType solutionType, Set<Node> terms) {
-        MAP = kmap.MAP;
-        BOUNDARIES = new int[] {MAP.length, MAP[0].length};
-        this.solutionType = solutionType;
-        this.terms = terms;
-        var groupStream = getGroups().stream();
-        if(solutionType == SolutionType.PRODUCT_OF_SUMS)
-            groupStream = groupStream.map(q -> q.stream().map(KmapBuilder::complement)
-                            .map(StringBuilder::toString)
-                            .collect(Collectors.toCollection(ArrayDeque::new)));
-        solution = groupStream.map(group -> reduce(solutionType, group))
-                .collect(toList());
-    }
-
-    public List<String> getSolution() {
-        return solution;
-    }
-
-    private Deque<Queue<String>> getGroups() {
-        Deque<Queue<Node>> groups = new ArrayDeque<>();
-        while (terms.iterator().hasNext()) {
-            groups.add(findMaxGroup(terms.iterator().next()));
-            terms = removeGroupedMinTerms(terms, groups);
+    private static final int DIRECTIONS = Direction.values().length;
+
+    private final int ROWS, COLUMNS, ROW_WIDTH, COLUMN_WIDTH;
+    private final int[] ROW_CODES, COLUMN_CODES;
+    private final int[][] NEIGHBOURS;
+    private final long FULL_MASK;
+    private final boolean[] valid;
+    private final BitSet terms;
+    private final int[][] candidates;
+    private final List<Cube> solution;
+
+    KmapSolver(Kmap kmap, SolutionType solutionType) {
+        this(kmap, solutionType, new SolverContext());
+    }
+
+    KmapSolver(Kmap kmap, SolutionType solutionType, SolverContext context) {
+        this(kmap.ROW_VARIABLES.size(), kmap.COLUMN_VARIABLES.size(),
+                kmap.TRUTH_TABLE.termsOf(solutionType), kmap.TRUTH_TABLE.getDontCares(), context);
+    }
+
+    KmapSolver(int rowWidth, int columnWidth, int[] terms, int[] dontCares, SolverContext context) {
+        context.checkOwner();
+        ROW_WIDTH = rowWidth;
+        COLUMN_WIDTH = columnWidth;
+        ROWS = 1 << ROW_WIDTH;
+        COLUMNS = 1 << COLUMN_WIDTH;
+        ROW_CODES = GrayCode.codes(ROW_WIDTH);
+        COLUMN_CODES = GrayCode.codes(COLUMN_WIDTH);
+        NEIGHBOURS = Adjacency.of(ROW_WIDTH, COLUMN_WIDTH);
+        FULL_MASK = Cube.fullMask(rowWidth + columnWidth);
+        valid = context.valid(ROWS * COLUMNS);
+        candidates = context.candidates(ROWS * COLUMNS);
+        this.terms = context.terms();
+        solution = context.groups();
+        for (int index : terms) {
+            this.terms.set(index);
+            valid[positionOf(index)] = true;
         }
-        return mapFromNodeToImplicant(groups);
+        for (int index : dontCares)
+            valid[positionOf(index)] = true;
+        solveGroups();
     }
 
-    private Deque<Queue<String>> mapFromNodeToImplicant(Deque<Queue<Node>> groups) {
-        return groups.stream()
-                .map(q -> q.stream()
-                        .map(Node::getImplicant)
-                        .collect(Collectors.toCollection(ArrayDeque::new)))
-                .collect(Collectors.toCollection(ArrayDeque::new));
+    List<Cube> getSolution() {
+        return solution;
     }
 
-    private Set<Node> removeGroupedMinTerms(Set<Node> terms, Deque<Queue<Node>> groups) {
-        return terms.stream()
-                .filter(node -> !groups.getLast().contains(node))
-                .collect(toSet());
+    private int positionOf(int index) {
+        return GrayCode.row(index, ROW_WIDTH) * COLUMNS + GrayCode.column(index, ROW_WIDTH, COLUMN_WIDTH);
     }
 
-    private String reduce(SolutionType solutionType, Queue<String> implicants) {
-        if (implicants.size() == 1)
-            return implicants.poll();
-        return String.join(solutionType.INNER_DELIMITER, getResultantExpression(splitIntoVariables(implicants)));
+    private int indexOf(int position) {
+        return COLUMN_CODES[position % COLUMNS] << ROW_WIDTH | ROW_CODES[position / COLUMNS];
     }
 
-    private List<String> getResultantExpression(String[][] variables) {
-        var expression = new ArrayList<String>();
-        for (int i = 0; i < variables[0].length; i++) {
-            boolean initialState = variableIsPositive(variables[0][i]), hasChanged = false;
-            for (String[] varRow : variables) {
-                hasChanged = nextVariableIsInverted(varRow[i], initialState);
-                if (hasChanged)
-                    break;
+    private void solveGroups() {
+        for (int index = terms.nextSetBit(0); index >= 0; index = terms.nextSetBit(index + 1)) {
+            int position = positionOf(index), best = 0, bestSize = 0;
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                int size = groupFrom(position, direction, candidates[direction]);
+                if (size > bestSize) {
+                    best = direction;
+                    bestSize = size;
+                }
             }
-            if (!hasChanged)
-                expression.add(variables[0][i]);
+            solution.add(reduce(candidates[best], bestSize));
         }
-        return expression;
-    }
-
-    private boolean nextVariableIsInverted(String variable, boolean initialState) {
-        return initialState ^ variableIsPositive(variable);
-    }
-
-    private boolean variableIsPositive(String variable) {
-        return variable.charAt(variable.length() - 1) == '\u0305';
+        Metrics.count(Counter.GROUP_CANDIDATES, (long) DIRECTIONS * solution.size());
     }
 
-    private String[][] splitIntoVariables(Queue<String> implicants) {
-        return implicants.stream().map(impl -> impl.split(solutionType.getInnerRegex())).toArray(String[][]::new);
-    }
-
-    private Queue<Node> findMaxGroup(Node n) {
-        Queue<Queue<Node>> groups = new PriorityQueue<>(Comparator.<Queue<Node>, Integer>comparing(Queue::size).reversed());
-        for (var direction : Direction.values())
-            groups.add(groupFromNode(n, direction));
-        return groups.poll();
-    }
-
-    Deque<Node> trimToPow2(Deque<Node> deque, int lengthOfBase) {
-        int length = lengthOfBase + deque.size();
-        while (!isAPowerOf2(length)) {
-            deque.removeLast();
-            length--;
+    private Cube reduce(int[] group, int size) {
+        long first = indexOf(group[0]), changed = 0;
+        for (int i = 0; i < size; i++) {
+            int index = indexOf(group[i]);
+            changed |= first ^ index;
+            terms.clear(index);
+        }
+        assert size == 1 << Long.bitCount(changed) : "group of " + size + " cells is not a subcube";
+        return new Cube(first, FULL_MASK & ~changed);
+    }
+
+    private int groupFrom(int start, int direction, int[] group) {
+        int side = next(direction);
+        int across = isHorizontal(direction) ? COLUMNS : ROWS, along = isHorizontal(side) ? COLUMNS : ROWS;
+        int width = 1, height = 1;
+        for (int length = 2; length <= across; length <<= 1) {
+            int corner = alignedStart(start, direction, length, across);
+            if (isValid(corner, direction, length, side, 1))
+                width = length;
         }
-        return deque;
+        int origin = alignedStart(start, direction, width, across);
+        int corner = origin;
+        for (int length = 2; length <= along; length <<= 1) {
+            int candidate = alignedStart(origin, side, length, along);
+            if (isValid(candidate, direction, width, side, length)) {
+                height = length;
+                corner = candidate;
+            }
+        }
+        return collect(corner, direction, width, side, height, group);
     }
 
-    private Deque<Node> groupFromNode(Node n, Direction direction) {
-        Deque<Node> group = traverseFrom(n.getRCMatrix(), direction);
-        if (group.size() > 1)
-            group.addAll(lookForLargerGroups(direction, group.size(), group.getLast().getRCMatrix(), direction.next()));
-        return group;
+    private int alignedStart(int position, int direction, int length, int axis) {
+        if (length == 1)
+            return position;
+        int step = forward(direction), back = opposite(step);
+        int offset = isHorizontal(direction) ? position % COLUMNS : position / COLUMNS;
+        int half = length >> 1, moves = length == axis ? offset : offset % half + (isForward(direction) ? 0 : half);
+        for (int i = 0; i < moves; i++)
+            position = NEIGHBOURS[back][position];
+        return position;
     }
 
-    private Deque<Node> lookForLargerGroups(Direction original, int limit, int[] RCMatrix, Direction side) {
-        Deque<Node> buffer = new ArrayDeque<>();
-        side.advance(RCMatrix, BOUNDARIES);
-        int i = 0;
-        for (var direction = original.opposite(); isNotOverlappingAndValid(RCMatrix, i, direction); direction = direction.opposite()) {
-            var possibleGroup = traverseFrom(RCMatrix, direction, limit);
-            if (possibleGroup.size() != limit) break;
-            buffer.addAll(possibleGroup);
-            side.advance(RCMatrix, BOUNDARIES);
-        }
-        return trimToPow2(buffer, limit);
+    private boolean isValid(int corner, int direction, int width, int side, int height) {
+        int across = forward(direction), along = forward(side);
+        for (int row = 0, line = corner; row < height; row++, line = NEIGHBOURS[along][line])
+            for (int column = 0, cell = line; column < width; column++, cell = NEIGHBOURS[across][cell])
+                if (!valid[cell])
+                    return false;
+        return true;
     }
 
-    private boolean isNotOverlappingAndValid(int[] RCMatrix, int i, Direction direction) {
-        return i < (direction.isHorizontal() ? MAP[0].length : MAP.length) && isValid(MAP[RCMatrix[0]][RCMatrix[1]]);
+    private int collect(int corner, int direction, int width, int side, int height, int[] group) {
+        int across = forward(direction), along = forward(side), size = 0;
+        for (int row = 0, line = corner; row < height; row++, line = NEIGHBOURS[along][line])
+            for (int column = 0, cell = line; column < width; column++, cell = NEIGHBOURS[across][cell])
+                group[size++] = cell;
+        return size;
     }
 
-    private Deque<Node> traverseFrom(int[] rcMatrix, Direction direction) {
-        return traverseFrom(rcMatrix, direction, direction.isHorizontal() ? MAP[0].length : MAP.length);
+    private static boolean isForward(int direction) {
+        return direction == Direction.RIGHT.ordinal() || direction == Direction.DOWN.ordinal();
     }
 
-    private Deque<Node> traverseFrom(int[] rcMatrix, Direction direction, int limit) {
-        Deque<Node> group = new ArrayDeque<>(), buffer = new ArrayDeque<>();
-        for (int i = 0; i < limit && isValid(MAP[rcMatrix[0]][rcMatrix[1]]); i++) {
-            if (MAP[rcMatrix[0]][rcMatrix[1]] == group.peekFirst()) break;
-            buffer.add(MAP[rcMatrix[0]][rcMatrix[1]]);
-            if (isAPowerOf2(buffer.size() + group.size()))
-                unloadBuffer(group, buffer);
-            direction.advance(rcMatrix, BOUNDARIES);
-        }
-        return group;
+    private static int forward(int direction) {
+        return isHorizontal(direction) ? Direction.RIGHT.ordinal() : Direction.DOWN.ordinal();
     }
 
-    private boolean isValid(Node node) {
-        return node.getValue() == solutionType.VALUE || node.getValue() == 'x';
+    private static boolean isHorizontal(int direction) {
+        return (direction & 1) == 1;
     }
 
-    private void unloadBuffer(Queue<Node> max, Queue<Node> buffer) {
-        max.addAll(buffer);
-        buffer.clear();
+    private static int next(int direction) {
+        return (direction + 1) % DIRECTIONS;
     }
 
-    private boolean isAPowerOf2(int groupLength) {
-        return groupLength > 0 && (groupLength & (groupLength - 1)) == 0;
+    private static int opposite(int direction) {
+        return (direction + 2) % DIRECTIONS;
     }
 }
@@ -0,0 +1,56 @@
+package booleanalgebra;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+
+final class MappedFile {
+    private static final long WINDOW = 1L << 30;
+
+    interface LineSink {
+        void accept(byte[] line, int length);
+    }
+
+    private MappedFile() {
+    }
+
+    static void forEachLine(Path path, LineSink sink) {
+        try (var channel = FileChannel.open(path, READ)) {
+            byte[] line = new byte[256];
+            int length = 0;
+            for (long position = 0, size = channel.size(); position < size; position += WINDOW) {
+                var buffer = channel.map(READ_ONLY, position, Math.min(WINDOW, size - position));
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        sink.accept(line, length > 0 && line[length - 1] == '\r' ? length - 1 : length);
+                        length = 0;
+                        continue;
+                    }
+                    if (length == line.length)
+                        line = Arrays.copyOf(line, length << 1);
+                    line[length++] = b;
+                }
+            }
+            if (length > 0)
+                sink.accept(line, line[length - 1] == '\r' ? length - 1 : length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '|';
+    }
+
+    static int skipWhitespace(byte[] line, int position, int length) {
+        while (position < length && isWhitespace(line[position]))
+            position++;
+        return position;
+    }
+}
@@ -0,0 +1,170 @@
+package booleanalgebra;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+final class MergeKernel {
+    static final int MAX_VARIABLES = 20, SEQUENTIAL_CUTOFF = 1 << 10;
+    private static final long[] LOW_HALVES = {
+            0x5555555555555555L, 0x3333333333333333L, 0x0F0F0F0F0F0F0F0FL,
+            0x00FF00FF00FF00FFL, 0x0000FFFF0000FFFFL, 0x00000000FFFFFFFFL
+    };
+
+    private MergeKernel() {
+    }
+
+    static boolean suits(int numberOfVariables, int implicants) {
+        return numberOfVariables <= MAX_VARIABLES && (long) implicants << 12 >= 1L << numberOfVariables;
+    }
+
+    static List<Cube> primeImplicants(int numberOfVariables, long[] minTerms) {
+        return primeImplicants(numberOfVariables, minTerms, 1);
+    }
+
+    static List<Cube> primeImplicants(int numberOfVariables, long[] minTerms, int parallelism) {
+        long full = Cube.fullMask(numberOfVariables);
+        long[] words = new long[wordsFor(numberOfVariables)];
+        for (long minTerm : minTerms)
+            words[(int) (minTerm >>> 6)] |= 1L << minTerm;
+        Map<Long, long[]> level = new HashMap<>();
+        level.put(full, words);
+        var primes = new ArrayList<Cube>();
+        long candidates = 0;
+        while (!level.isEmpty()) {
+            var groups = new ArrayList<>(level.entrySet());
+            long size = 0;
+            for (var group : groups) {
+                candidates += cardinality(group.getValue());
+                size += group.getValue().length;
+            }
+            var merged = parallelism > 1 && groups.size() > 1 && size > SEQUENTIAL_CUTOFF
+                    ? ParallelPrimes.pool(parallelism).invoke(new LevelTask(groups, 0, groups.size()))
+                    : merge(groups, 0, groups.size());
+            primes.addAll(merged.primes);
+            level = merged.next;
+        }
+        Metrics.count(Counter.GROUP_CANDIDATES, candidates);
+        return primes;
+    }
+
+    private static Merged merge(List<Map.Entry<Long, long[]>> groups, int from, int to) {
+        var merged = new Merged();
+        for (int g = from; g < to; g++)
+            mergeGroup(groups.get(g).getKey(), groups.get(g).getValue(), merged.next, merged.primes);
+        return merged;
+    }
+
+    private static void mergeGroup(long mask, long[] words, Map<Long, long[]> next, List<Cube> primes) {
+        long[] merged = new long[words.length];
+        int width = Long.bitCount(mask);
+        int rank = 0;
+        for (long bits = mask; bits != 0; bits &= bits - 1, rank++) {
+            long[] target = null;
+            if (rank < 6) {
+                int shift = 1 << rank;
+                long low = LOW_HALVES[rank];
+                for (int i = 0; i < words.length; i++) {
+                    long pairs = words[i] & words[i] >>> shift & low;
+                    if (pairs == 0)
+                        continue;
+                    if (target == null)
+                        target = next.computeIfAbsent(mask & ~(bits & -bits), m -> new long[wordsFor(width - 1)]);
+                    merged[i] |= pairs | pairs << shift;
+                    target[i >>> 1] |= compress(pairs, rank) << ((i & 1) << 5);
+                }
+            } else {
+                int stride = 1 << (rank - 6);
+                long[] pairs = new long[words.length >>> 1];
+                boolean any = false;
+                for (int base = 0; base < words.length; base += stride << 1) {
+                    int half = base >>> 1;
+                    for (int j = 0; j < stride; j++) {
+                        long pair = words[base + j] & words[base + stride + j];
+                        merged[base + j] |= pair;
+                        merged[base + stride + j] |= pair;
+                        pairs[half + j] = pair;
+                    }
+                }
+                for (long pair : pairs)
+                    any |= pair != 0;
+                if (any) {
+                    target = next.computeIfAbsent(mask & ~(bits & -bits), m -> new long[wordsFor(width - 1)]);
+                    for (int i = 0; i < pairs.length; i++)
+                        target[i] |= pairs[i];
+                }
+            }
+        }
+        for (int i = 0; i < words.length; i++)
+            for (long rest = words[i] & ~merged[i]; rest != 0; rest &= rest - 1)
+                primes.add(new Cube(deposit(((long) i << 6) | Long.numberOfTrailingZeros(rest), mask), mask));
+    }
+
+    private static long compress(long pairs, int rank) {
+        for (int s = rank; s < 5; s++)
+            pairs = (pairs | pairs >>> (1 << s)) & LOW_HALVES[s + 1];
+        return pairs;
+    }
+
+    private static long deposit(long index, long mask) {
+        long value = 0;
+        for (long bits = mask; bits != 0 && index != 0; bits &= bits - 1, index >>>= 1)
+            if ((index & 1) != 0)
+                value |= bits & -bits;
+        return value;
+    }
+
+    private static int wordsFor(int width) {
+        return width <= 6 ? 1 : 1 << (width - 6);
+    }
+
+    private static final class Merged {
+        final Map<Long, long[]> next = new HashMap<>();
+        final List<Cube> primes = new ArrayList<>();
+
+        Merged absorb(Merged other) {
+            other.next.forEach((mask, words) -> next.merge(mask, words, (left, right) -> {
+                for (int i = 0; i < left.length; i++)
+                    left[i] |= right[i];
+                return left;
+            }));
+            primes.addAll(other.primes);
+            return this;
+        }
+    }
+
+    private static final class LevelTask extends RecursiveTask<Merged> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Map.Entry<Long, long[]>> groups;
+        private final int from, to;
+
+        LevelTask(List<Map.Entry<Long, long[]>> groups, int from, int to) {
+            this.groups = groups;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Merged compute() {
+            long size = 0;
+            for (int g = from; g < to; g++)
+                size += groups.get(g).getValue().length;
+            if (to - from == 1 || size <= SEQUENTIAL_CUTOFF)
+                return merge(groups, from, to);
+            int middle = (from + to) >>> 1;
+            var right = new LevelTask(groups, middle, to);
+            right.fork();
+            return new LevelTask(groups, from, middle).compute().absorb(right.join());
+        }
+    }
+
+    private static long cardinality(long[] words) {
+        long count = 0;
+        for (long word : words)
+            count += Long.bitCount(word);
+        return count;
+    }
+}
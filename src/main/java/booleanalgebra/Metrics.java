@@ -0,0 +1,127 @@
+package booleanalgebra;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Metrics {
+    private static final Histogram[] HISTOGRAMS = new Histogram[Phase.values().length];
+    private static final LongAdder[] COUNTERS = new LongAdder[Counter.values().length];
+    private static final MinimizerListener[] NO_LISTENERS = new MinimizerListener[0];
+    private static volatile boolean enabled;
+    private static volatile MinimizerListener[] listeners = NO_LISTENERS;
+
+    static {
+        Arrays.setAll(HISTOGRAMS, i -> new Histogram());
+        Arrays.setAll(COUNTERS, i -> new LongAdder());
+    }
+
+    private Metrics() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static synchronized void addListener(MinimizerListener listener) {
+        var current = listeners;
+        var updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    public static synchronized void removeListener(MinimizerListener listener) {
+        listeners = Arrays.stream(listeners).filter(l -> l != listener).toArray(MinimizerListener[]::new);
+    }
+
+    public static Histogram histogram(Phase phase) {
+        return HISTOGRAMS[phase.ordinal()];
+    }
+
+    public static long count(Counter counter) {
+        return COUNTERS[counter.ordinal()].sum();
+    }
+
+    public static void reset() {
+        for (var histogram : HISTOGRAMS)
+            histogram.reset();
+        for (var counter : COUNTERS)
+            counter.reset();
+    }
+
+    static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    static void time(Phase phase, long start) {
+        if (enabled && start != 0)
+            record(phase, System.nanoTime() - start);
+    }
+
+    static void record(Phase phase, long nanos) {
+        if (!enabled)
+            return;
+        HISTOGRAMS[phase.ordinal()].add(nanos);
+        for (var listener : listeners)
+            listener.onPhase(phase, nanos);
+    }
+
+    static void count(Counter counter, long amount) {
+        if (!enabled || amount == 0)
+            return;
+        COUNTERS[counter.ordinal()].add(amount);
+        for (var listener : listeners)
+            listener.onCount(counter, amount);
+    }
+
+    public static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+        private final LongAdder count = new LongAdder(), totalNanos = new LongAdder();
+
+        private Histogram() {
+        }
+
+        void add(long nanos) {
+            buckets.incrementAndGet(nanos > 0 ? Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos) : 0);
+            count.increment();
+            totalNanos.add(nanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getBucket(int log2Nanos) {
+            return buckets.get(log2Nanos);
+        }
+
+        public long percentile(double fraction) {
+            long target = (long) Math.ceil(getCount() * fraction), seen = 0;
+            for (int bucket = 0; bucket < Long.SIZE; bucket++) {
+                seen += buckets.get(bucket);
+                if (seen >= Math.max(target, 1))
+                    return bucket == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+            }
+            return 0;
+        }
+
+        void reset() {
+            for (int bucket = 0; bucket < Long.SIZE; bucket++)
+                buckets.set(bucket, 0);
+            count.reset();
+            totalNanos.reset();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package booleanalgebra;
+
+import java.time.Duration;
+import java.util.List;
+
+interface MinimizationEngine {
+    List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares);
+
+    default List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares, Duration timeLimit) {
+        return minimize(numberOfVariables, terms, dontCares);
+    }
+
+    default List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares, Duration timeLimit, SolverContext context) {
+        return minimize(numberOfVariables, terms, dontCares, timeLimit);
+    }
+
+    default List<Cube> minimize(Kmap kmap, SolutionType solutionType) {
+        return minimize(
+                kmap.VARIABLES.size(),
+                kmap.TRUTH_TABLE.termsOf(solutionType),
+                kmap.TRUTH_TABLE.getDontCares(),
+                kmap.TIME_LIMIT);
+    }
+
+    default List<Cube> minimize(Kmap kmap, SolutionType solutionType, SolverContext context) {
+        return minimize(kmap, solutionType);
+    }
+}
@@ -0,0 +1,30 @@
+package booleanalgebra;
+
+public final class MinimizationResult {
+    private final long sequence;
+    private final FunctionSpec spec;
+    private final String solution;
+
+    MinimizationResult(long sequence, FunctionSpec spec, String solution) {
+        this.sequence = sequence;
+        this.spec = spec;
+        this.solution = solution;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public FunctionSpec getSpec() {
+        return spec;
+    }
+
+    public String getSolution() {
+        return solution;
+    }
+
+    @Override
+    public String toString() {
+        return sequence + ": " + solution;
+    }
+}
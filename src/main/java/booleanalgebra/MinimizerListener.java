@@ -0,0 +1,9 @@
+package booleanalgebra;
+
+public interface MinimizerListener {
+    default void onPhase(Phase phase, long nanos) {
+    }
+
+    default void onCount(Counter counter, long amount) {
+    }
+}
@@ -0,0 +1,121 @@
+package booleanalgebra;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static booleanalgebra.SolutionType.SUM_OF_PRODUCTS;
+import static java.util.stream.Collectors.toList;
+
+final class MultiOutputMinimizer {
+    private final int inputs, outputs;
+    private final int[][] terms, dontCares;
+
+    MultiOutputMinimizer(Kmap kmap, SolutionType solutionType) {
+        inputs = kmap.COLUMN_VARIABLES.size();
+        outputs = kmap.ROW_VARIABLES.size();
+        terms = new int[outputs][];
+        dontCares = new int[outputs][];
+        splitIntoOutputs(kmap.TRUTH_TABLE, solutionType);
+    }
+
+    private void splitIntoOutputs(TruthTable truthTable, SolutionType solutionType) {
+        int size = 1 << inputs, rowMask = (1 << outputs) - 1;
+        int[] ones = new int[size], anyOnes = new int[size];
+        boolean[] defined = new boolean[size];
+        Arrays.fill(ones, rowMask);
+        for (int[] cells : List.of(truthTable.termsOf(SUM_OF_PRODUCTS), truthTable.getDontCares())) {
+            for (int cell : cells) {
+                int input = cell >>> outputs, row = cell & rowMask;
+                ones[input] &= row;
+                anyOnes[input] |= row;
+                defined[input] = true;
+            }
+        }
+        for (int output = 0; output < outputs; output++) {
+            int bit = 1 << (outputs - output - 1);
+            var on = IntStream.builder();
+            var dc = IntStream.builder();
+            for (int input = 0; input < size; input++) {
+                if (!defined[input] || (ones[input] & bit) != (anyOnes[input] & bit))
+                    dc.add(input);
+                else if (((ones[input] & bit) != 0) == (solutionType == SUM_OF_PRODUCTS))
+                    on.add(input);
+            }
+            terms[output] = on.build().toArray();
+            dontCares[output] = dc.build().toArray();
+        }
+    }
+
+    List<List<Cube>> minimize(Engine engine, Duration timeLimit, ForkJoinPool pool) {
+        List<List<Cube>> separate = pool.submit(() -> IntStream.range(0, outputs)
+                .parallel()
+                .mapToObj(output -> engine.minimize(inputs, terms[output], dontCares[output], timeLimit))
+                .collect(toList()))
+                .join();
+        var shared = share(separate);
+        return cost(shared) < cost(separate) ? shared : separate;
+    }
+
+    private List<List<Cube>> share(List<List<Cube>> separate) {
+        var candidates = separate.stream()
+                .flatMap(List::stream)
+                .distinct()
+                .sorted(Comparator.comparingInt(Cube::literalCount))
+                .collect(toList());
+        var used = new LinkedHashSet<Cube>();
+        var result = new ArrayList<List<Cube>>();
+        for (int output = 0; output < outputs; output++) {
+            var valid = new ArrayList<Cube>();
+            for (var cube : candidates)
+                if (isImplicant(cube, output))
+                    valid.add(cube);
+            var cover = cover(output, valid, used);
+            used.addAll(cover);
+            result.add(cover);
+        }
+        return result;
+    }
+
+    private List<Cube> cover(int output, List<Cube> valid, Set<Cube> used) {
+        var uncovered = new BitSet();
+        for (int term : terms[output])
+            uncovered.set(term);
+        var cover = new ArrayList<Cube>();
+        while (!uncovered.isEmpty()) {
+            Cube best = null;
+            long bestScore = 0;
+            for (var cube : valid) {
+                long gain = gain(cube, uncovered);
+                long score = gain == 0 ? 0 : (gain << 8) * (used.contains(cube) ? 2 : 1) - cube.literalCount();
+                if (score > bestScore) {
+                    best = cube;
+                    bestScore = score;
+                }
+            }
+            Objects.requireNonNull(best).forEachMinTerm(inputs, index -> uncovered.clear((int) index));
+            cover.add(best);
+        }
+        return cover;
+    }
+
+    private long gain(Cube cube, BitSet uncovered) {
+        long[] gain = {0};
+        cube.forEachMinTerm(inputs, index -> gain[0] += uncovered.get((int) index) ? 1 : 0);
+        return gain[0];
+    }
+
+    private boolean isImplicant(Cube cube, int output) {
+        boolean[] implicant = {true};
+        cube.forEachMinTerm(inputs, index -> implicant[0] &= Arrays.binarySearch(terms[output], (int) index) >= 0
+                || Arrays.binarySearch(dontCares[output], (int) index) >= 0);
+        return implicant[0];
+    }
+
+    private static long cost(List<List<Cube>> solution) {
+        var distinct = new HashSet<Cube>();
+        solution.forEach(distinct::addAll);
+        return ((long) distinct.size() << 32) + distinct.stream().mapToInt(Cube::literalCount).sum();
+    }
+}
@@ -0,0 +1,213 @@
+package booleanalgebra;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static booleanalgebra.SolutionType.SUM_OF_PRODUCTS;
+import static booleanalgebra.TermType.DONT_CARE;
+import static booleanalgebra.TermType.MIN_TERM;
+
+public final class MutableKmap {
+    private final List<String> variables;
+    private final int numberOfVariables;
+    private final Engine engine;
+    private final Duration timeLimit;
+    private final int parallelism;
+    private final BitSet on = new BitSet(), dontCares = new BitSet();
+    private final Map<SolutionType, Primes> primes = new EnumMap<>(SolutionType.class);
+    private final Map<SolutionType, List<Cube>> solutions = new EnumMap<>(SolutionType.class);
+
+    MutableKmap(List<String> variables, TruthTable truthTable, Engine engine, Duration timeLimit, int parallelism) {
+        this.variables = List.copyOf(variables);
+        this.numberOfVariables = variables.size();
+        this.engine = engine;
+        this.timeLimit = timeLimit;
+        this.parallelism = parallelism;
+        Arrays.stream(truthTable.termsOf(SUM_OF_PRODUCTS)).forEach(on::set);
+        Arrays.stream(truthTable.getDontCares()).forEach(dontCares::set);
+        for (var solutionType : SolutionType.values())
+            primes.put(solutionType, new Primes(solutionType));
+    }
+
+    public MutableKmap setTerm(int index, TermType termType) {
+        if (index < 0 || index >= 1 << numberOfVariables)
+            throw new IllegalStateException("given indexes are out of bounds!");
+        boolean[] allowed = allowed(index);
+        on.set(index, termType == MIN_TERM);
+        dontCares.set(index, termType == DONT_CARE);
+        boolean[] nowAllowed = allowed(index);
+        for (var solutionType : SolutionType.values()) {
+            int i = solutionType.ordinal();
+            if (allowed[i] == nowAllowed[i])
+                continue;
+            if (nowAllowed[i])
+                primes.get(solutionType).add(index);
+            else
+                primes.get(solutionType).remove(index);
+        }
+        solutions.clear();
+        return this;
+    }
+
+    private boolean[] allowed(int index) {
+        var allowed = new boolean[SolutionType.values().length];
+        for (var solutionType : SolutionType.values())
+            allowed[solutionType.ordinal()] = primes.get(solutionType).allowed.test(index);
+        return allowed;
+    }
+
+    public String minimize(SolutionType solutionType) {
+        return getSolution(solutionType).toString();
+    }
+
+    public Solution getSolution(SolutionType solutionType) {
+        return new Solution(solutionType, variables, solve(solutionType));
+    }
+
+    List<Cube> solve(SolutionType solutionType) {
+        return solutions.computeIfAbsent(solutionType, type -> primes.get(type).cover(termsOf(type)));
+    }
+
+    Set<Cube> primesOf(SolutionType solutionType) {
+        return primes.get(solutionType).cubes;
+    }
+
+    private BitSet termsOf(SolutionType solutionType) {
+        if (solutionType == SUM_OF_PRODUCTS)
+            return (BitSet) on.clone();
+        var off = new BitSet();
+        off.set(0, 1 << numberOfVariables);
+        off.andNot(on);
+        off.andNot(dontCares);
+        return off;
+    }
+
+    public Kmap snapshot() {
+        return KmapBuilder.withVariables(variables.get(0), variables.subList(1, numberOfVariables).toArray(String[]::new))
+                .andTermsAt(MIN_TERM, on.stream().toArray())
+                .andTermsAt(DONT_CARE, dontCares.stream().toArray())
+                .withEngine(engine)
+                .withTimeLimit(timeLimit)
+                .withParallelism(parallelism)
+                .buildSparse();
+    }
+
+    private final class Primes {
+        final SolutionType solutionType;
+        final IntPredicate allowed;
+        final Set<Cube> cubes = new LinkedHashSet<>();
+        private List<Cube> previous;
+
+        Primes(SolutionType solutionType) {
+            this.solutionType = solutionType;
+            allowed = solutionType == SUM_OF_PRODUCTS
+                    ? index -> on.get(index) || dontCares.get(index)
+                    : index -> !on.get(index);
+            int[] cells = IntStream.range(0, 1 << numberOfVariables).filter(allowed).toArray();
+            cubes.addAll(QuineMcCluskey.primeImplicants(numberOfVariables, cells, new int[0]));
+        }
+
+        void add(int index) {
+            var maximal = new ArrayList<Cube>();
+            Set<Cube> level = Set.of(Cube.ofMinTerm(index, numberOfVariables));
+            while (!level.isEmpty()) {
+                var next = new LinkedHashSet<Cube>();
+                for (var cube : level) {
+                    boolean extended = false;
+                    for (long bits = cube.getMask(); bits != 0; bits &= bits - 1) {
+                        long bit = bits & -bits;
+                        if (fits(new Cube(cube.getValue() ^ bit, cube.getMask()))) {
+                            next.add(new Cube(cube.getValue(), cube.getMask() & ~bit));
+                            extended = true;
+                        }
+                    }
+                    if (!extended)
+                        maximal.add(cube);
+                }
+                level = next;
+            }
+            cubes.removeIf(prime -> maximal.stream().anyMatch(cube -> cube.contains(prime)));
+            cubes.addAll(maximal);
+        }
+
+        void remove(int index) {
+            var candidates = new LinkedHashSet<Cube>();
+            for (var iterator = cubes.iterator(); iterator.hasNext(); ) {
+                var prime = iterator.next();
+                if (!prime.covers(index))
+                    continue;
+                iterator.remove();
+                for (long bits = Cube.fullMask(numberOfVariables) & ~prime.getMask(); bits != 0; bits &= bits - 1) {
+                    long bit = bits & -bits;
+                    candidates.add(new Cube(prime.getValue() | ~index & bit, prime.getMask() | bit));
+                }
+            }
+            for (var candidate : candidates)
+                if (cubes.stream().noneMatch(prime -> prime.contains(candidate))
+                        && candidates.stream().noneMatch(other -> !other.equals(candidate) && other.contains(candidate)))
+                    cubes.add(candidate);
+        }
+
+        // The first cover comes from the configured engine; after edits the previous cover is repaired greedily.
+        List<Cube> cover(BitSet terms) {
+            if (terms.isEmpty())
+                return previous = List.of();
+            if (previous == null)
+                return previous = snapshot().solve(solutionType);
+            var uncovered = (BitSet) terms.clone();
+            var cover = new ArrayList<Cube>();
+            for (var cube : previous) {
+                if (fits(cube)) {
+                    cover.add(cube);
+                    cube.forEachMinTerm(numberOfVariables, index -> uncovered.clear((int) index));
+                }
+            }
+            for (int term = uncovered.nextSetBit(0); term >= 0; term = uncovered.nextSetBit(term + 1)) {
+                var best = bestPrimeFor(term, uncovered);
+                cover.add(best);
+                best.forEachMinTerm(numberOfVariables, index -> uncovered.clear((int) index));
+            }
+            return previous = irredundant(cover, terms);
+        }
+
+        private Cube bestPrimeFor(int term, BitSet uncovered) {
+            Cube best = null;
+            long bestGain = 0;
+            for (var prime : cubes) {
+                if (!prime.covers(term))
+                    continue;
+                long[] gain = {0};
+                prime.forEachMinTerm(numberOfVariables, index -> gain[0] += uncovered.get((int) index) ? 1 : 0);
+                if (gain[0] > bestGain || gain[0] == bestGain && prime.literalCount() < best.literalCount()) {
+                    best = prime;
+                    bestGain = gain[0];
+                }
+            }
+            return Objects.requireNonNull(best);
+        }
+
+        private List<Cube> irredundant(List<Cube> cover, BitSet terms) {
+            var coverCount = new int[1 << numberOfVariables];
+            cover.forEach(cube -> cube.forEachMinTerm(numberOfVariables, index -> coverCount[(int) index]++));
+            cover.sort(Comparator.comparingInt(Cube::literalCount).reversed());
+            var result = new ArrayList<Cube>();
+            for (var cube : cover) {
+                boolean[] redundant = {true};
+                cube.forEachMinTerm(numberOfVariables, index -> redundant[0] &= !terms.get((int) index) || coverCount[(int) index] > 1);
+                if (redundant[0])
+                    cube.forEachMinTerm(numberOfVariables, index -> coverCount[(int) index]--);
+                else
+                    result.add(cube);
+            }
+            return result;
+        }
+
+        private boolean fits(Cube cube) {
+            boolean[] fits = {true};
+            cube.forEachMinTerm(numberOfVariables, index -> fits[0] &= allowed.test((int) index));
+            return fits[0];
+        }
+    }
+}
@@ -54,8 +54,4 @@ final class Node {
     char getValue() {
         return value;
     }
-
-    int[] getRCMatrix() {
-        return new int[] {row, column};
-    }
 }
\ No newline at end of file
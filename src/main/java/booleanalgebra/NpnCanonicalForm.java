@@ -0,0 +1,249 @@
+package booleanalgebra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static booleanalgebra.SolutionType.PRODUCT_OF_SUMS;
+import static booleanalgebra.SolutionType.SUM_OF_PRODUCTS;
+
+final class NpnCanonicalForm {
+    static final int MAX_VARIABLES = 6;
+    private static final int MAX_CANDIDATES = 1 << 10;
+    private static final long[] FLIP_MASKS = {
+            0x5555555555555555L, 0x3333333333333333L, 0x0F0F0F0F0F0F0F0FL,
+            0x00FF00FF00FF00FFL, 0x0000FFFF0000FFFFL, 0x00000000FFFFFFFFL
+    };
+
+    private final int numberOfVariables;
+    private final long onSet, dontCares;
+    private final int[] permutation;
+    private final long negations;
+    private final boolean outputNegated;
+
+    private NpnCanonicalForm(int numberOfVariables, long onSet, long dontCares, int[] permutation, long negations, boolean outputNegated) {
+        this.numberOfVariables = numberOfVariables;
+        this.onSet = onSet;
+        this.dontCares = dontCares;
+        this.permutation = permutation;
+        this.negations = negations;
+        this.outputNegated = outputNegated;
+    }
+
+    static boolean supports(int numberOfVariables) {
+        return numberOfVariables <= MAX_VARIABLES;
+    }
+
+    static NpnCanonicalForm of(TruthTable truthTable) {
+        int n = truthTable.getNumberOfVariables();
+        long on = toWord(truthTable.termsOf(SUM_OF_PRODUCTS)), dc = toWord(truthTable.getDontCares());
+        long tableMask = Cube.fullMask(1 << n), off = ~on & ~dc & tableMask;
+        int onCount = Long.bitCount(on), offCount = Long.bitCount(off);
+        var search = new Search(n, dc, tableMask);
+        if (onCount <= offCount)
+            search.prepare(on, false);
+        if (onCount >= offCount)
+            search.prepare(off, true);
+        if (search.candidates > MAX_CANDIDATES)
+            return new NpnCanonicalForm(n, on, dc, IntStream.range(0, n).toArray(), 0, false);
+        search.run();
+        return search.best;
+    }
+
+    private static final class Search {
+        private final int numberOfVariables;
+        private final long dontCares, tableMask;
+        private final List<Phase> phases = new ArrayList<>();
+        private long candidates;
+        private NpnCanonicalForm best;
+
+        Search(int numberOfVariables, long dontCares, long tableMask) {
+            this.numberOfVariables = numberOfVariables;
+            this.dontCares = dontCares;
+            this.tableMask = tableMask;
+        }
+
+        void prepare(long on, boolean outputNegated) {
+            var phase = new Phase(numberOfVariables, on, dontCares, tableMask, outputNegated);
+            candidates += phase.candidates();
+            phases.add(phase);
+        }
+
+        void run() {
+            for (var phase : phases)
+                order(phase, 0, phase.order.clone());
+        }
+
+        private void order(Phase phase, int from, int[] order) {
+            if (from == order.length) {
+                negate(phase, order, phase.negations, 0);
+                return;
+            }
+            int end = from + 1;
+            while (end < order.length && phase.signature[order[end]] == phase.signature[order[from]])
+                end++;
+            tie(phase, from, end, order);
+        }
+
+        private void tie(Phase phase, int from, int end, int[] order) {
+            if (end - from <= 1) {
+                order(phase, end, order);
+                return;
+            }
+            for (int i = from; i < end; i++) {
+                swap(order, from, i);
+                tie(phase, from + 1, end, order);
+                swap(order, from, i);
+            }
+        }
+
+        private void negate(Phase phase, int[] order, long negations, int variable) {
+            if (variable == numberOfVariables) {
+                consider(phase, order, negations);
+                return;
+            }
+            negate(phase, order, negations, variable + 1);
+            if ((phase.tied >>> variable & 1) != 0)
+                negate(phase, order, negations ^ 1L << variable, variable + 1);
+        }
+
+        private void consider(Phase phase, int[] order, long negations) {
+            long on = phase.on, dc = dontCares;
+            for (long bits = negations; bits != 0; bits &= bits - 1) {
+                int variable = Long.numberOfTrailingZeros(bits);
+                on = flip(on, variable);
+                dc = flip(dc, variable);
+            }
+            int[] at = new int[numberOfVariables];
+            for (int k = 0; k < numberOfVariables; k++)
+                at[k] = k;
+            for (int k = 0; k < numberOfVariables; k++) {
+                int position = k;
+                while (at[position] != order[k])
+                    position++;
+                if (position == k)
+                    continue;
+                on = swap(on, k, position);
+                dc = swap(dc, k, position);
+                at[position] = at[k];
+                at[k] = order[k];
+            }
+            long permutedOn = on, permutedDc = dc;
+            if (best == null || isSmaller(permutedOn, permutedDc, best))
+                best = new NpnCanonicalForm(numberOfVariables, permutedOn, permutedDc, order.clone(), negations, phase.outputNegated);
+        }
+    }
+
+    private static final class Phase {
+        final long on;
+        final boolean outputNegated;
+        final long[] signature;
+        final int[] order;
+        long negations, tied;
+
+        Phase(int numberOfVariables, long on, long dontCares, long tableMask, boolean outputNegated) {
+            this.on = on;
+            this.outputNegated = outputNegated;
+            signature = new long[numberOfVariables];
+            for (int variable = 0; variable < numberOfVariables; variable++) {
+                long low = FLIP_MASKS[variable] & tableMask, high = ~FLIP_MASKS[variable] & tableMask;
+                long lowWeight = weight(on & low, dontCares & low), highWeight = weight(on & high, dontCares & high);
+                if (highWeight > lowWeight)
+                    negations |= 1L << variable;
+                else if (highWeight == lowWeight)
+                    tied |= 1L << variable;
+                signature[variable] = Math.min(lowWeight, highWeight);
+            }
+            order = IntStream.range(0, numberOfVariables).toArray();
+            for (int i = 1; i < order.length; i++)
+                for (int j = i; j > 0 && signature[order[j]] < signature[order[j - 1]]; j--)
+                    swap(order, j, j - 1);
+        }
+
+        private static long weight(long on, long dontCares) {
+            return (long) Long.bitCount(on) << Integer.SIZE | Long.bitCount(dontCares);
+        }
+
+        long candidates() {
+            long count = 1L << Long.bitCount(tied);
+            for (int from = 0, end; from < order.length; from = end) {
+                for (end = from + 1; end < order.length && signature[order[end]] == signature[order[from]]; end++)
+                    count *= end - from + 1;
+            }
+            return count;
+        }
+    }
+
+    private static boolean isSmaller(long on, long dc, NpnCanonicalForm best) {
+        int comparison = Long.compareUnsigned(on, best.onSet);
+        return comparison < 0 || comparison == 0 && Long.compareUnsigned(dc, best.dontCares) < 0;
+    }
+
+    private static long toWord(int[] indexes) {
+        long word = 0;
+        for (int index : indexes)
+            word |= 1L << index;
+        return word;
+    }
+
+    private static long permuteBits(long bits, int[] permutation) {
+        long result = 0;
+        for (int i = 0; i < permutation.length; i++)
+            result |= ((bits >>> i) & 1) << permutation[i];
+        return result;
+    }
+
+    private static long flip(long table, int variable) {
+        int shift = 1 << variable;
+        long mask = FLIP_MASKS[variable];
+        return ((table & mask) << shift) | ((table >>> shift) & mask);
+    }
+
+    private static long swap(long table, int low, int high) {
+        int shift = (1 << high) - (1 << low);
+        long delta = (table ^ (table >>> shift)) & ~FLIP_MASKS[low] & FLIP_MASKS[high];
+        return table ^ delta ^ (delta << shift);
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    int getNumberOfVariables() {
+        return numberOfVariables;
+    }
+
+    long getOnSet() {
+        return onSet;
+    }
+
+    long getDontCares() {
+        return dontCares;
+    }
+
+    SolutionType canonicalSolutionType(SolutionType solutionType) {
+        if (!outputNegated)
+            return solutionType;
+        return solutionType == SUM_OF_PRODUCTS ? PRODUCT_OF_SUMS : SUM_OF_PRODUCTS;
+    }
+
+    int[] termsOf(SolutionType canonicalSolutionType) {
+        long terms = canonicalSolutionType == SUM_OF_PRODUCTS ? onSet : ~onSet & ~dontCares & Cube.fullMask(1 << numberOfVariables);
+        return indexesOf(terms);
+    }
+
+    int[] dontCareIndexes() {
+        return indexesOf(dontCares);
+    }
+
+    private static int[] indexesOf(long word) {
+        return IntStream.range(0, Long.SIZE).filter(i -> (word >>> i & 1) != 0).toArray();
+    }
+
+    Cube toOriginal(Cube canonical) {
+        long mask = permuteBits(canonical.getMask(), permutation);
+        return new Cube(permuteBits(canonical.getValue(), permutation) ^ negations, mask);
+    }
+}
@@ -0,0 +1,137 @@
+package booleanalgebra;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.LongStream;
+
+final class ParallelPrimes {
+    static final int SEQUENTIAL_CUTOFF = 1 << 12;
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private ParallelPrimes() {
+    }
+
+    static boolean suits(int parallelism, int implicants) {
+        return parallelism > 1 && implicants > SEQUENTIAL_CUTOFF;
+    }
+
+    static ForkJoinPool pool(int parallelism) {
+        return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    static List<Cube> primeImplicants(int numberOfVariables, long[] minTerms, int parallelism) {
+        var pool = pool(parallelism);
+        Map<Long, long[]> level = Map.of(Cube.fullMask(numberOfVariables), minTerms);
+        var primes = new ArrayList<Cube>();
+        long candidates = 0;
+        while (!level.isEmpty()) {
+            var buckets = new ArrayList<Bucket>();
+            var merged = new HashMap<Long, boolean[]>();
+            for (var entry : level.entrySet()) {
+                long[] values = entry.getValue();
+                candidates += values.length;
+                merged.put(entry.getKey(), new boolean[values.length]);
+                buckets.addAll(Bucket.byPopCount(entry.getKey(), values, merged.get(entry.getKey())));
+            }
+            var next = pool.invoke(new MergeTask(buckets, 0, buckets.size()));
+            level.forEach((mask, values) -> {
+                boolean[] flags = merged.get(mask);
+                for (int i = 0; i < values.length; i++)
+                    if (!flags[i])
+                        primes.add(new Cube(values[i], mask));
+            });
+            Map<Long, long[]> sorted = new HashMap<>();
+            next.forEach((mask, values) -> sorted.put(mask, values.build().sorted().distinct().toArray()));
+            level = sorted;
+        }
+        Metrics.count(Counter.GROUP_CANDIDATES, candidates);
+        return primes;
+    }
+
+    private static final class Bucket {
+        final long mask;
+        final long[] values;
+        final boolean[] merged;
+        final int[] members;
+
+        private Bucket(long mask, long[] values, boolean[] merged, int[] members) {
+            this.mask = mask;
+            this.values = values;
+            this.merged = merged;
+            this.members = members;
+        }
+
+        static List<Bucket> byPopCount(long mask, long[] values, boolean[] merged) {
+            int[] sizes = new int[Long.SIZE + 1];
+            for (long value : values)
+                sizes[Long.bitCount(value)]++;
+            int[][] members = new int[sizes.length][];
+            for (int k = 0; k < sizes.length; k++)
+                members[k] = new int[sizes[k]];
+            Arrays.fill(sizes, 0);
+            for (int i = 0; i < values.length; i++) {
+                int k = Long.bitCount(values[i]);
+                members[k][sizes[k]++] = i;
+            }
+            var buckets = new ArrayList<Bucket>();
+            for (int[] bucket : members)
+                if (bucket.length > 0)
+                    buckets.add(new Bucket(mask, values, merged, bucket));
+            return buckets;
+        }
+
+        void merge(Map<Long, LongStream.Builder> next) {
+            for (int i : members) {
+                for (long bits = mask & ~values[i]; bits != 0; bits &= bits - 1) {
+                    long bit = bits & -bits;
+                    int j = Arrays.binarySearch(values, i + 1, values.length, values[i] | bit);
+                    if (j < 0)
+                        continue;
+                    merged[i] = merged[j] = true;
+                    next.computeIfAbsent(mask & ~bit, m -> LongStream.builder()).add(values[i]);
+                }
+            }
+        }
+    }
+
+    private static final class MergeTask extends RecursiveTask<Map<Long, LongStream.Builder>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Bucket> buckets;
+        private final int from, to;
+
+        MergeTask(List<Bucket> buckets, int from, int to) {
+            this.buckets = buckets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, LongStream.Builder> compute() {
+            if (to - from == 1 || size() <= SEQUENTIAL_CUTOFF) {
+                Map<Long, LongStream.Builder> next = new HashMap<>();
+                for (int b = from; b < to; b++)
+                    buckets.get(b).merge(next);
+                return next;
+            }
+            int middle = (from + to) >>> 1;
+            var right = new MergeTask(buckets, middle, to);
+            right.fork();
+            var next = new MergeTask(buckets, from, middle).compute();
+            right.join().forEach((mask, values) -> {
+                var builder = next.computeIfAbsent(mask, m -> LongStream.builder());
+                values.build().forEach(builder);
+            });
+            return next;
+        }
+
+        private long size() {
+            long size = 0;
+            for (int b = from; b < to; b++)
+                size += buckets.get(b).members.length;
+            return size;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package booleanalgebra;
+
+public enum Phase {
+    BUILD,
+    GROUPING,
+    REDUCTION,
+    FORMATTING
+}
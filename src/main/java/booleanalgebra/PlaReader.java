@@ -0,0 +1,173 @@
+package booleanalgebra;
+
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static booleanalgebra.MappedFile.isWhitespace;
+import static booleanalgebra.MappedFile.skipWhitespace;
+import static booleanalgebra.TermType.DONT_CARE;
+import static booleanalgebra.TermType.MIN_TERM;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+public final class PlaReader {
+    private static final int MAX_INPUTS = 30;
+
+    private int inputs = -1, outputs = -1;
+    private String[] inputNames, outputNames;
+    private boolean dontCareSet = true, offSet, ended;
+    private BitSet[] on, dontCare, off;
+    private byte[] outputValues;
+
+    private PlaReader() {
+    }
+
+    public static Map<String, KmapBuilder> read(Path path) {
+        var reader = new PlaReader();
+        MappedFile.forEachLine(path, reader::accept);
+        return reader.toBuilders();
+    }
+
+    private void accept(byte[] line, int length) {
+        int start = skipWhitespace(line, 0, length);
+        if (ended || start == length || line[start] == '#')
+            return;
+        if (line[start] == '.')
+            directive(new String(line, start, length - start, US_ASCII).trim().split("\\s+"));
+        else
+            cube(line, start, length);
+    }
+
+    private void directive(String[] tokens) {
+        switch (tokens[0]) {
+            case ".i":
+                inputs = Integer.parseInt(tokens[1]);
+                if (inputs < 2 || inputs > MAX_INPUTS)
+                    throw new IllegalStateException("a PLA needs between 2 and " + MAX_INPUTS + " inputs");
+                break;
+            case ".o":
+                outputs = Integer.parseInt(tokens[1]);
+                if (outputs < 1)
+                    throw new IllegalStateException("a PLA needs at least one output");
+                break;
+            case ".ilb":
+                inputNames = names(tokens);
+                break;
+            case ".ob":
+                outputNames = names(tokens);
+                break;
+            case ".type":
+                dontCareSet = tokens[1].contains("d");
+                offSet = tokens[1].contains("r");
+                break;
+            case ".e":
+            case ".end":
+                ended = true;
+                break;
+            default:
+        }
+    }
+
+    private static String[] names(String[] tokens) {
+        var names = new String[tokens.length - 1];
+        System.arraycopy(tokens, 1, names, 0, names.length);
+        return names;
+    }
+
+    private void cube(byte[] line, int position, int length) {
+        if (on == null)
+            initialise();
+        int value = 0, free = 0;
+        for (int k = 0; k < inputs; k++, position++) {
+            position = skipWhitespace(line, position, length);
+            int bit = 1 << (inputs - k - 1);
+            switch (position < length ? line[position] : -1) {
+                case '0':
+                    break;
+                case '1':
+                    value |= bit;
+                    break;
+                case '-':
+                case '2':
+                    free |= bit;
+                    break;
+                default:
+                    throw new IllegalStateException("Invalid input format! " + new String(line, 0, length, US_ASCII));
+            }
+        }
+        for (int j = 0; j < outputs; j++, position++) {
+            position = skipWhitespace(line, position, length);
+            if (position == length || isWhitespace(line[position]))
+                throw new IllegalStateException("Invalid input format! " + new String(line, 0, length, US_ASCII));
+            outputValues[j] = line[position];
+        }
+        for (int j = 0; j < outputs; j++) {
+            var terms = termsFor(outputValues[j]);
+            if (terms == null)
+                continue;
+            if (terms[j] == null)
+                terms[j] = new BitSet();
+            int sub = free;
+            do {
+                terms[j].set(value | sub);
+                sub = (sub - 1) & free;
+            } while (sub != free);
+        }
+    }
+
+    private BitSet[] termsFor(byte output) {
+        switch (output) {
+            case '1':
+            case '4':
+                return on;
+            case '-':
+            case '2':
+                return dontCareSet ? dontCare : null;
+            case '0':
+            case '3':
+                return offSet ? off : null;
+            case '~':
+                return null;
+            default:
+                throw new IllegalStateException("Invalid input format! " + (char) output + " is not an output value");
+        }
+    }
+
+    private void initialise() {
+        if (inputs < 0 || outputs < 0)
+            throw new IllegalStateException("a PLA must declare .i and .o before its cubes");
+        on = new BitSet[outputs];
+        dontCare = new BitSet[outputs];
+        off = new BitSet[outputs];
+        outputValues = new byte[outputs];
+    }
+
+    private Map<String, KmapBuilder> toBuilders() {
+        if (on == null)
+            initialise();
+        if (inputNames != null && inputNames.length != inputs || outputNames != null && outputNames.length != outputs)
+            throw new IllegalStateException("Invalid input format! .ilb or .ob does not match .i or .o");
+        var builders = new LinkedHashMap<String, KmapBuilder>();
+        for (int j = 0; j < outputs; j++) {
+            var builder = inputNames == null
+                    ? KmapBuilder.withNumberOfVariables(inputs)
+                    : KmapBuilder.withVariables(inputNames[0], names(inputNames));
+            if (offSet) {
+                dontCare[j] = new BitSet();
+                dontCare[j].set(0, 1 << inputs);
+                if (off[j] != null)
+                    dontCare[j].andNot(off[j]);
+            }
+            builders.put(outputNames == null ? "F" + j : outputNames[j], builder
+                    .andTermsAt(MIN_TERM, indexes(on[j]))
+                    .andTermsAt(DONT_CARE, indexes(dontCare[j])));
+            on[j] = dontCare[j] = off[j] = null;
+        }
+        return builders;
+    }
+
+    private static int[] indexes(BitSet terms) {
+        return terms == null ? new int[0] : terms.stream().toArray();
+    }
+}
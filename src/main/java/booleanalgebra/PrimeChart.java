@@ -0,0 +1,252 @@
+package booleanalgebra;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.IntStream;
+
+final class PrimeChart {
+    private final int numberOfVariables;
+    private final List<Cube> primes;
+    private int[][] coveredBy, covers;
+    private final int[] coverCount;
+    private final boolean[] selected, activeTerms, activePrimes;
+    private int uncovered, bestCost = Integer.MAX_VALUE, cost;
+    private List<Cube> best;
+    private long deadline, nodes;
+    private boolean timedOut;
+
+    PrimeChart(int numberOfVariables, int[] terms, List<Cube> candidates) {
+        this.numberOfVariables = numberOfVariables;
+        var covering = new ArrayList<Cube>();
+        var coverLists = new ArrayList<int[]>();
+        for (var prime : candidates) {
+            var covered = IntStream.builder();
+            prime.forEachMinTerm(numberOfVariables, index -> {
+                int term = Arrays.binarySearch(terms, (int) index);
+                if (term >= 0)
+                    covered.add(term);
+            });
+            int[] coveredTerms = covered.build().sorted().toArray();
+            if (coveredTerms.length > 0) {
+                covering.add(prime);
+                coverLists.add(coveredTerms);
+            }
+        }
+        primes = covering;
+        covers = coverLists.toArray(int[][]::new);
+        coveredBy = invert(covers, terms.length);
+        coverCount = new int[terms.length];
+        selected = new boolean[primes.size()];
+        activeTerms = new boolean[terms.length];
+        activePrimes = new boolean[primes.size()];
+        Arrays.fill(activeTerms, true);
+        Arrays.fill(activePrimes, true);
+        uncovered = terms.length;
+    }
+
+    private static int[][] invert(int[][] covers, int numberOfTerms) {
+        var builders = new IntStream.Builder[numberOfTerms];
+        for (int i = 0; i < numberOfTerms; i++)
+            builders[i] = IntStream.builder();
+        for (int prime = 0; prime < covers.length; prime++)
+            for (int term : covers[prime])
+                builders[term].add(prime);
+        return Arrays.stream(builders).map(b -> b.build().toArray()).toArray(int[][]::new);
+    }
+
+    List<Cube> solve(Duration timeLimit, long start) {
+        deadline = start + timeLimit.toNanos();
+        reduce();
+        greedy();
+        search();
+        return best;
+    }
+
+    private boolean expired() {
+        return timedOut = timedOut || System.nanoTime() - deadline > 0;
+    }
+
+    private void reduce() {
+        boolean changed = true;
+        while (changed && !expired())
+            changed = selectEssentials() | removeDominatedTerms() | removeDominatedPrimes();
+        coveredBy = Arrays.stream(coveredBy).map(this::active).toArray(int[][]::new);
+        covers = Arrays.stream(covers).map(terms -> IntStream.of(terms)
+                .filter(term -> activeTerms[term] && coverCount[term] == 0)
+                .toArray()).toArray(int[][]::new);
+    }
+
+    private boolean selectEssentials() {
+        boolean changed = false;
+        for (int term = 0; term < coveredBy.length; term++) {
+            if (!isOpen(term))
+                continue;
+            int[] candidates = active(coveredBy[term]);
+            if (candidates.length == 1) {
+                select(candidates[0]);
+                activePrimes[candidates[0]] = false;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private boolean removeDominatedTerms() {
+        boolean changed = false;
+        for (int term = 0; term < coveredBy.length; term++) {
+            if (!isOpen(term))
+                continue;
+            int[] candidates = active(coveredBy[term]);
+            for (int other : covers[candidates[0]]) {
+                if (other != term && isOpen(other) && containsAll(coveredBy[other], candidates)) {
+                    activeTerms[other] = false;
+                    uncovered--;
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean removeDominatedPrimes() {
+        boolean changed = false;
+        for (int prime = 0; prime < covers.length; prime++) {
+            if (!activePrimes[prime])
+                continue;
+            int[] open = open(covers[prime]);
+            if (open.length == 0) {
+                activePrimes[prime] = false;
+                changed = true;
+                continue;
+            }
+            for (int other : coveredBy[open[0]]) {
+                if (other != prime && activePrimes[other] && costOf(other) <= costOf(prime)
+                        && containsAll(covers[other], open)) {
+                    activePrimes[prime] = false;
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean isOpen(int term) {
+        return activeTerms[term] && coverCount[term] == 0;
+    }
+
+    private int[] active(int[] candidates) {
+        return IntStream.of(candidates).filter(prime -> activePrimes[prime]).toArray();
+    }
+
+    private int[] open(int[] terms) {
+        return IntStream.of(terms).filter(this::isOpen).toArray();
+    }
+
+    private static boolean containsAll(int[] sorted, int[] values) {
+        for (int value : values)
+            if (Arrays.binarySearch(sorted, value) < 0)
+                return false;
+        return true;
+    }
+
+    private void greedy() {
+        var chosen = new ArrayDeque<Integer>();
+        while (uncovered > 0) {
+            int bestPrime = -1, bestGain = 0;
+            for (int prime = 0; prime < covers.length; prime++) {
+                int gain = activePrimes[prime] ? gain(prime) : 0;
+                if (gain > bestGain || gain == bestGain && gain > 0 && costOf(prime) < costOf(bestPrime)) {
+                    bestPrime = prime;
+                    bestGain = gain;
+                }
+            }
+            select(bestPrime);
+            chosen.push(bestPrime);
+        }
+        record();
+        chosen.forEach(this::deselect);
+    }
+
+    private void search() {
+        if (timedOut || (++nodes & 0x3FF) == 0 && expired())
+            return;
+        if (uncovered == 0) {
+            if (cost < bestCost)
+                record();
+            return;
+        }
+        if (cost + lowerBound() >= bestCost)
+            return;
+        int term = mostConstrainedTerm();
+        Integer[] choices = Arrays.stream(coveredBy[term]).boxed()
+                .sorted(Comparator.<Integer>comparingInt(this::gain).reversed().thenComparingInt(this::costOf))
+                .toArray(Integer[]::new);
+        for (int prime : choices) {
+            if (timedOut)
+                return;
+            select(prime);
+            search();
+            deselect(prime);
+        }
+    }
+
+    private int mostConstrainedTerm() {
+        int term = -1;
+        for (int i = 0; i < coverCount.length; i++)
+            if (isOpen(i) && (term < 0 || coveredBy[i].length < coveredBy[term].length))
+                term = i;
+        return term;
+    }
+
+    private int lowerBound() {
+        var blocked = new boolean[covers.length];
+        int bound = 0;
+        for (int term = 0; term < coverCount.length; term++) {
+            if (!isOpen(term) || Arrays.stream(coveredBy[term]).anyMatch(prime -> blocked[prime]))
+                continue;
+            int cheapest = Integer.MAX_VALUE;
+            for (int prime : coveredBy[term]) {
+                blocked[prime] = true;
+                cheapest = Math.min(cheapest, costOf(prime));
+            }
+            bound += cheapest;
+        }
+        return bound;
+    }
+
+    private int gain(int prime) {
+        int gain = 0;
+        for (int term : covers[prime])
+            gain += isOpen(term) ? 1 : 0;
+        return gain;
+    }
+
+    private int costOf(int prime) {
+        return numberOfVariables + 1 + primes.get(prime).literalCount();
+    }
+
+    private void select(int prime) {
+        selected[prime] = true;
+        cost += costOf(prime);
+        for (int term : covers[prime])
+            if (coverCount[term]++ == 0 && activeTerms[term])
+                uncovered--;
+    }
+
+    private void deselect(int prime) {
+        selected[prime] = false;
+        cost -= costOf(prime);
+        for (int term : covers[prime])
+            if (--coverCount[term] == 0 && activeTerms[term])
+                uncovered++;
+    }
+
+    private void record() {
+        bestCost = cost;
+        best = new ArrayList<>();
+        for (int prime = 0; prime < selected.length; prime++)
+            if (selected[prime])
+                best.add(primes.get(prime));
+    }
+}
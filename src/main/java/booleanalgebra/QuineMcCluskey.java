@@ -0,0 +1,95 @@
+package booleanalgebra;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+final class QuineMcCluskey implements MinimizationEngine {
+    static final Duration DEFAULT_TIME_LIMIT = Duration.ofSeconds(1);
+
+    @Override
+    public List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares) {
+        return minimize(numberOfVariables, terms, dontCares, null);
+    }
+
+    @Override
+    public List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares, Duration timeLimit) {
+        return minimize(numberOfVariables, terms, dontCares, timeLimit, 1);
+    }
+
+    @Override
+    public List<Cube> minimize(Kmap kmap, SolutionType solutionType) {
+        return minimize(
+                kmap.VARIABLES.size(),
+                kmap.TRUTH_TABLE.termsOf(solutionType),
+                kmap.TRUTH_TABLE.getDontCares(),
+                kmap.TIME_LIMIT,
+                kmap.PARALLELISM);
+    }
+
+    List<Cube> minimize(int numberOfVariables, int[] terms, int[] dontCares, Duration timeLimit, int parallelism) {
+        if (terms.length == 0)
+            return List.of();
+        long start = System.nanoTime(), grouping = Metrics.start();
+        var primes = primeImplicants(numberOfVariables, terms, dontCares, parallelism);
+        Metrics.time(Phase.GROUPING, grouping);
+        Metrics.count(Counter.IMPLICANTS, primes.size());
+        long reduction = Metrics.start();
+        var cover = new PrimeChart(numberOfVariables, terms, primes).solve(timeLimit == null ? DEFAULT_TIME_LIMIT : timeLimit, start);
+        Metrics.time(Phase.REDUCTION, reduction);
+        return cover;
+    }
+
+    static List<Cube> primeImplicants(int numberOfVariables, int[] terms, int[] dontCares) {
+        return primeImplicants(numberOfVariables, terms, dontCares, 1);
+    }
+
+    static List<Cube> primeImplicants(int numberOfVariables, int[] terms, int[] dontCares, int parallelism) {
+        long[] minTerms = IntStream.concat(IntStream.of(terms), IntStream.of(dontCares))
+                .asLongStream()
+                .sorted()
+                .distinct()
+                .toArray();
+        if (MergeKernel.suits(numberOfVariables, minTerms.length))
+            return MergeKernel.primeImplicants(numberOfVariables, minTerms, parallelism);
+        if (ParallelPrimes.suits(parallelism, minTerms.length))
+            return ParallelPrimes.primeImplicants(numberOfVariables, minTerms, parallelism);
+        Map<Long, long[]> level = new HashMap<>();
+        level.put(Cube.fullMask(numberOfVariables), minTerms);
+        var primes = new ArrayList<Cube>();
+        long candidates = 0;
+        while (!level.isEmpty()) {
+            for (long[] values : level.values())
+                candidates += values.length;
+            level = mergeLevel(level, primes);
+        }
+        Metrics.count(Counter.GROUP_CANDIDATES, candidates);
+        return primes;
+    }
+
+    private static Map<Long, long[]> mergeLevel(Map<Long, long[]> level, List<Cube> primes) {
+        Map<Long, LongStream.Builder> next = new HashMap<>();
+        for (var entry : level.entrySet()) {
+            long mask = entry.getKey();
+            long[] values = entry.getValue();
+            boolean[] merged = new boolean[values.length];
+            for (int i = 0; i < values.length; i++) {
+                for (long bits = mask & ~values[i]; bits != 0; bits &= bits - 1) {
+                    long bit = bits & -bits;
+                    int j = Arrays.binarySearch(values, i + 1, values.length, values[i] | bit);
+                    if (j < 0)
+                        continue;
+                    merged[i] = merged[j] = true;
+                    next.computeIfAbsent(mask & ~bit, m -> LongStream.builder()).add(values[i]);
+                }
+            }
+            for (int i = 0; i < values.length; i++)
+                if (!merged[i])
+                    primes.add(new Cube(values[i], mask));
+        }
+        Map<Long, long[]> sorted = new HashMap<>();
+        next.forEach((mask, values) -> sorted.put(mask, values.build().sorted().distinct().toArray()));
+        return sorted;
+    }
+}
@@ -0,0 +1,64 @@
+package booleanalgebra;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+public final class Solution {
+    private final SolutionType solutionType;
+    private final List<String> variables;
+    private final List<Cube> cubes;
+    private List<String> terms;
+    private String text;
+
+    Solution(SolutionType solutionType, List<String> variables, List<Cube> cubes) {
+        this.solutionType = solutionType;
+        this.variables = List.copyOf(variables);
+        this.cubes = List.copyOf(cubes);
+    }
+
+    public SolutionType getSolutionType() {
+        return solutionType;
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    public List<Cube> getCubes() {
+        return cubes;
+    }
+
+    public int getTermCount() {
+        return cubes.size();
+    }
+
+    public int getLiteralCount() {
+        int literals = 0;
+        for (var cube : cubes)
+            literals += cube.literalCount();
+        return literals;
+    }
+
+    public int getCost() {
+        return getTermCount() + getLiteralCount();
+    }
+
+    public List<String> getTerms() {
+        if (terms == null && cubes.isEmpty())
+            terms = List.of(solutionType.empty());
+        else if (terms == null)
+            terms = cubes.stream()
+                    .map(cube -> solutionType.render(cube, variables))
+                    .collect(toUnmodifiableList());
+        return terms;
+    }
+
+    @Override
+    public String toString() {
+        if (text == null)
+            text = String.join(solutionType.OUTER_DELIMITER, getTerms());
+        return text;
+    }
+}
@@ -0,0 +1,129 @@
+package booleanalgebra;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public final class SolutionCache {
+    private static final SolutionCache SHARED = new SolutionCache(10_000, 64L << 20);
+    private static final int ENTRY_OVERHEAD = 128, CUBE_BYTES = 32;
+
+    private final LongAdder hits = new LongAdder(), storeHits = new LongAdder(), misses = new LongAdder();
+    private final LinkedHashMap<Fingerprint, List<Cube>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int maximumSize;
+    private long maximumBytes, bytes;
+    private volatile SolutionStore store;
+
+    private SolutionCache(int maximumSize, long maximumBytes) {
+        this.maximumSize = maximumSize;
+        this.maximumBytes = maximumBytes;
+    }
+
+    public static SolutionCache shared() {
+        return SHARED;
+    }
+
+    List<Cube> get(Fingerprint fingerprint, Supplier<List<Cube>> solver) {
+        var solution = find(fingerprint);
+        if (solution != null)
+            return solution;
+        var store = this.store;
+        solution = store == null ? null : store.get(fingerprint);
+        if (solution != null) {
+            storeHits.increment();
+            Metrics.count(Counter.STORE_HITS, 1);
+            solution = List.copyOf(solution);
+        } else {
+            misses.increment();
+            Metrics.count(Counter.CACHE_MISSES, 1);
+            solution = List.copyOf(solver.get());
+            if (store != null)
+                store.put(fingerprint, solution);
+        }
+        put(fingerprint, solution);
+        return solution;
+    }
+
+    List<Cube> find(Fingerprint fingerprint) {
+        List<Cube> solution;
+        synchronized (this) {
+            solution = entries.get(fingerprint);
+        }
+        if (solution != null) {
+            hits.increment();
+            Metrics.count(Counter.CACHE_HITS, 1);
+        }
+        return solution;
+    }
+
+    synchronized void put(Fingerprint fingerprint, List<Cube> solution) {
+        if (maximumSize == 0 || maximumBytes == 0)
+            return;
+        var previous = entries.put(fingerprint, List.copyOf(solution));
+        if (previous != null)
+            bytes -= bytesOf(fingerprint, previous);
+        bytes += bytesOf(fingerprint, solution);
+        evict();
+    }
+
+    private static long bytesOf(Fingerprint fingerprint, List<Cube> solution) {
+        return ENTRY_OVERHEAD + fingerprint.bytes() + (long) CUBE_BYTES * solution.size();
+    }
+
+    private void evict() {
+        var iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && (entries.size() > maximumSize || bytes > maximumBytes)) {
+            var eldest = iterator.next();
+            bytes -= bytesOf(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    public synchronized void setMaximumSize(int maximumSize) {
+        if (maximumSize < 0)
+            throw new IllegalStateException("maximumSize cannot be negative");
+        this.maximumSize = maximumSize;
+        evict();
+    }
+
+    public synchronized void setMaximumBytes(long maximumBytes) {
+        if (maximumBytes < 0)
+            throw new IllegalStateException("maximumBytes cannot be negative");
+        this.maximumBytes = maximumBytes;
+        evict();
+    }
+
+    public void setStore(SolutionStore store) {
+        this.store = store;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+        hits.reset();
+        storeHits.reset();
+        misses.reset();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getStoreHits() {
+        return storeHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,179 @@
+package booleanalgebra;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+
+public final class SolutionStore implements Closeable {
+    private static final int DATA_MAGIC = 0x4B4D5344, INDEX_MAGIC = 0x4B4D5349, VERSION = 1;
+    private static final int DATA_HEADER = 16, INDEX_HEADER = 24, SLOT = 16;
+    private static final int INITIAL_DATA_SIZE = 1 << 20, INITIAL_CAPACITY = 1 << 10;
+
+    private final FileChannel dataChannel, indexChannel;
+    private MappedByteBuffer data, index;
+    private long end;
+    private int capacity, size;
+
+    private SolutionStore(FileChannel dataChannel, FileChannel indexChannel) throws IOException {
+        this.dataChannel = dataChannel;
+        this.indexChannel = indexChannel;
+        boolean fresh = dataChannel.size() == 0;
+        data = dataChannel.map(READ_WRITE, 0, Math.max(dataChannel.size(), INITIAL_DATA_SIZE));
+        if (fresh) {
+            end = DATA_HEADER;
+            data.putInt(0, DATA_MAGIC).putInt(4, VERSION).putLong(8, end);
+        } else if (data.getInt(0) != DATA_MAGIC || data.getInt(4) != VERSION)
+            throw new IllegalStateException("not a solution store data file");
+        end = data.getLong(8);
+        index = indexChannel.size() == 0 ? null : indexChannel.map(READ_WRITE, 0, indexChannel.size());
+        if (index == null || index.getInt(0) != INDEX_MAGIC || index.getLong(16) != end)
+            rebuildIndex(INITIAL_CAPACITY);
+        else {
+            capacity = index.getInt(4);
+            size = index.getInt(8);
+        }
+    }
+
+    public static SolutionStore open(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            return new SolutionStore(
+                    FileChannel.open(directory.resolve("solutions.dat"), CREATE, READ, WRITE),
+                    FileChannel.open(directory.resolve("solutions.idx"), CREATE, READ, WRITE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    synchronized List<Cube> get(Fingerprint fingerprint) {
+        byte[] key = fingerprint.toBytes();
+        long hash = hash(key);
+        for (int slot = slotOf(hash); ; slot = (slot + 1) & (capacity - 1)) {
+            long stored = index.getLong(INDEX_HEADER + slot * SLOT);
+            if (stored == 0)
+                return null;
+            if (stored == hash) {
+                int offset = (int) index.getLong(INDEX_HEADER + slot * SLOT + 8);
+                if (keyMatches(offset, key))
+                    return KmapCodec.readCubes(data.duplicate().position(offset + 8 + key.length));
+            }
+        }
+    }
+
+    synchronized void put(Fingerprint fingerprint, List<Cube> solution) {
+        byte[] key = fingerprint.toBytes();
+        var value = ByteBuffer.allocate(10 + solution.size() * 20);
+        KmapCodec.writeCubes(solution, value);
+        int length = 8 + key.length + value.position();
+        ensureDataCapacity(end + length);
+        int offset = (int) end;
+        data.putInt(offset, key.length).putInt(offset + 4, value.position());
+        data.duplicate().position(offset + 8).put(key).put(value.array(), 0, value.position());
+        end += length;
+        data.putLong(8, end);
+        insert(hash(key), offset);
+        index.putLong(16, end);
+    }
+
+    public synchronized void flush() {
+        data.force();
+        index.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            dataChannel.close();
+            indexChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean keyMatches(int offset, byte[] key) {
+        if (data.getInt(offset) != key.length)
+            return false;
+        for (int i = 0; i < key.length; i++)
+            if (data.get(offset + 8 + i) != key[i])
+                return false;
+        return true;
+    }
+
+    private void insert(long hash, int offset) {
+        if (++size * 2 > capacity) {
+            rebuildIndex(capacity * 2);
+            return;
+        }
+        int slot = slotOf(hash);
+        while (index.getLong(INDEX_HEADER + slot * SLOT) != 0)
+            slot = (slot + 1) & (capacity - 1);
+        index.putLong(INDEX_HEADER + slot * SLOT, hash).putLong(INDEX_HEADER + slot * SLOT + 8, offset);
+        index.putInt(8, size);
+    }
+
+    private void rebuildIndex(int minimumCapacity) {
+        int records = 0;
+        for (long offset = DATA_HEADER; offset < end; records++)
+            offset += 8 + data.getInt((int) offset) + data.getInt((int) offset + 4);
+        capacity = Math.max(minimumCapacity, Integer.highestOneBit(Math.max(records, 1) * 4));
+        try {
+            indexChannel.truncate(0);
+            index = indexChannel.map(READ_WRITE, 0, INDEX_HEADER + (long) capacity * SLOT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index.putInt(0, INDEX_MAGIC).putInt(4, capacity);
+        size = 0;
+        for (int offset = DATA_HEADER; offset < end; ) {
+            int keyLength = data.getInt(offset), valueLength = data.getInt(offset + 4);
+            var key = new byte[keyLength];
+            data.get(offset + 8, key);
+            size++;
+            int slot = slotOf(hash(key));
+            while (index.getLong(INDEX_HEADER + slot * SLOT) != 0)
+                slot = (slot + 1) & (capacity - 1);
+            index.putLong(INDEX_HEADER + slot * SLOT, hash(key)).putLong(INDEX_HEADER + slot * SLOT + 8, offset);
+            offset += 8 + keyLength + valueLength;
+        }
+        index.putInt(8, size).putLong(16, end);
+    }
+
+    private void ensureDataCapacity(long required) {
+        if (required <= data.capacity())
+            return;
+        if (required > Integer.MAX_VALUE)
+            throw new IllegalStateException("solution store is full");
+        try {
+            data.force();
+            data = dataChannel.map(READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(required, 2L * data.capacity())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int slotOf(long hash) {
+        return (int) (hash ^ hash >>> 32) & (capacity - 1);
+    }
+
+    private static long hash(byte[] key) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : key)
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+}
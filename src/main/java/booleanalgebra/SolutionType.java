@@ -1,5 +1,7 @@
 package booleanalgebra;
 
+import java.util.List;
+
 public enum SolutionType {
     SUM_OF_PRODUCTS('1', ".", " + "),
     PRODUCT_OF_SUMS('0', "+", ".");
@@ -19,7 +21,13 @@ public enum SolutionType {
         return term;
     }
 
-    String getInnerRegex() {
-        return "\\" + INNER_DELIMITER;
+    String empty() {
+        return this == PRODUCT_OF_SUMS ? "1" : "0";
+    }
+
+    String render(Cube cube, List<String> variables) {
+        if (cube.getMask() == 0)
+            return String.valueOf(VALUE);
+        return group((this == PRODUCT_OF_SUMS ? cube.complement() : cube).toString(variables, INNER_DELIMITER));
     }
 }
@@ -0,0 +1,63 @@
+package booleanalgebra;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+public final class SolverContext {
+    private final Thread owner = Thread.currentThread();
+    private boolean[] valid = new boolean[0];
+    private int[][] candidates = new int[Direction.values().length][0];
+    private int[] counts = new int[0];
+    private final BitSet terms = new BitSet(), allowed = new BitSet(), uncovered = new BitSet();
+    private final List<Cube> groups = new ArrayList<>();
+
+    void checkOwner() {
+        if (Thread.currentThread() != owner)
+            throw new IllegalStateException("SolverContext is confined to " + owner.getName());
+    }
+
+    boolean[] valid(int size) {
+        if (valid.length < size)
+            valid = new boolean[size];
+        else
+            Arrays.fill(valid, 0, size, false);
+        return valid;
+    }
+
+    int[][] candidates(int size) {
+        if (candidates[0].length < size)
+            for (int i = 0; i < candidates.length; i++)
+                candidates[i] = new int[size];
+        return candidates;
+    }
+
+    int[] counts(int size) {
+        if (counts.length < size)
+            counts = new int[size];
+        else
+            Arrays.fill(counts, 0, size, 0);
+        return counts;
+    }
+
+    BitSet terms() {
+        terms.clear();
+        return terms;
+    }
+
+    BitSet allowed() {
+        allowed.clear();
+        return allowed;
+    }
+
+    BitSet uncovered() {
+        uncovered.clear();
+        return uncovered;
+    }
+
+    List<Cube> groups() {
+        groups.clear();
+        return groups;
+    }
+}
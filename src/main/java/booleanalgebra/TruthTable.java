@@ -0,0 +1,58 @@
+package booleanalgebra;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static booleanalgebra.TermType.*;
+
+final class TruthTable {
+    private final int numberOfVariables;
+    private final TermType specifiedType;
+    private final int[] specified, dontCares;
+
+    TruthTable(int numberOfVariables, TermType specifiedType, int[] specified, int[] dontCares) {
+        this.numberOfVariables = numberOfVariables;
+        this.specifiedType = specifiedType;
+        this.specified = specified;
+        this.dontCares = IntStream.of(dontCares)
+                .filter(index -> Arrays.binarySearch(specified, index) < 0)
+                .toArray();
+    }
+
+    int getNumberOfVariables() {
+        return numberOfVariables;
+    }
+
+    int size() {
+        return 1 << numberOfVariables;
+    }
+
+    char valueAt(int index) {
+        if (Arrays.binarySearch(specified, index) >= 0)
+            return specifiedType.VALUE;
+        if (Arrays.binarySearch(dontCares, index) >= 0)
+            return DONT_CARE.VALUE;
+        return specifiedType.COMPLEMENT;
+    }
+
+    int[] termsOf(SolutionType solutionType) {
+        return solutionType.VALUE == specifiedType.VALUE ? specified : remainder();
+    }
+
+    int[] getDontCares() {
+        return dontCares;
+    }
+
+    private int[] remainder() {
+        var result = new int[size() - specified.length - dontCares.length];
+        for (int index = 0, s = 0, d = 0, r = 0; index < size(); index++) {
+            if (s < specified.length && specified[s] == index)
+                s++;
+            else if (d < dontCares.length && dontCares[d] == index)
+                d++;
+            else
+                result[r++] = index;
+        }
+        return result;
+    }
+}
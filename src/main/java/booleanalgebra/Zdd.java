@@ -0,0 +1,105 @@
+package booleanalgebra;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class Zdd extends DecisionDiagram {
+    private static final int UNION = 0, DIFFERENCE = 1;
+
+    @Override
+    boolean isRedundant(int low, int high) {
+        return high == ZERO;
+    }
+
+    int union(int p, int q) {
+        if (p == ZERO || p == q)
+            return q;
+        if (q == ZERO)
+            return p;
+        int a = Math.min(p, q), b = Math.max(p, q), result = cached(UNION, a, b);
+        if (result >= 0)
+            return result;
+        if (variable(a) < variable(b))
+            result = node(variable(a), union(low(a), b), high(a));
+        else if (variable(b) < variable(a))
+            result = node(variable(b), union(a, low(b)), high(b));
+        else
+            result = node(variable(a), union(low(a), low(b)), union(high(a), high(b)));
+        return cache(UNION, a, b, result);
+    }
+
+    int difference(int p, int q) {
+        if (p == ZERO || p == q)
+            return ZERO;
+        if (q == ZERO)
+            return p;
+        int result = cached(DIFFERENCE, p, q);
+        if (result >= 0)
+            return result;
+        if (variable(p) < variable(q))
+            result = node(variable(p), difference(low(p), q), high(p));
+        else if (variable(q) < variable(p))
+            result = difference(p, low(q));
+        else
+            result = node(variable(p), difference(low(p), low(q)), difference(high(p), high(q)));
+        return cache(DIFFERENCE, p, q, result);
+    }
+
+    int consistentWith(int family, long minTerm, int numberOfVariables) {
+        return consistentWith(family, minTerm, numberOfVariables, new HashMap<>());
+    }
+
+    private int consistentWith(int family, long minTerm, int numberOfVariables, Map<Integer, Integer> memo) {
+        if (isTerminal(family))
+            return family;
+        var known = memo.get(family);
+        if (known != null)
+            return known;
+        int literal = variable(family), low = consistentWith(low(family), minTerm, numberOfVariables, memo);
+        boolean positive = (minTerm & Cube.bitOf(literal >>> 1, numberOfVariables)) != 0;
+        int result = positive == ((literal & 1) == 0)
+                ? node(literal, low, consistentWith(high(family), minTerm, numberOfVariables, memo))
+                : low;
+        memo.put(family, result);
+        return result;
+    }
+
+    long count(int family) {
+        return count(family, new HashMap<>());
+    }
+
+    private long count(int family, Map<Integer, Long> memo) {
+        if (isTerminal(family))
+            return family;
+        var known = memo.get(family);
+        if (known != null)
+            return known;
+        long count = count(low(family), memo) + count(high(family), memo);
+        memo.put(family, count);
+        return count;
+    }
+
+    void forEachSet(int family, int numberOfVariables, SetConsumer action) {
+        forEachSet(family, numberOfVariables, 0, 0, action);
+    }
+
+    private void forEachSet(int family, int numberOfVariables, long positives, long negatives, SetConsumer action) {
+        if (family == ZERO)
+            return;
+        if (family == ONE) {
+            action.accept(positives, negatives);
+            return;
+        }
+        forEachSet(low(family), numberOfVariables, positives, negatives, action);
+        int literal = variable(family);
+        long bit = Cube.bitOf(literal >>> 1, numberOfVariables);
+        if ((literal & 1) == 0)
+            forEachSet(high(family), numberOfVariables, positives | bit, negatives, action);
+        else
+            forEachSet(high(family), numberOfVariables, positives, negatives | bit, action);
+    }
+
+    interface SetConsumer {
+        void accept(long positives, long negatives);
+    }
+}
@@ -2,8 +2,27 @@ package booleanalgebra;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.function.IntUnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -12,8 +31,8 @@ public class KmapTest {
     @Test
     void minTermsSetTest1() {
         Assertions.assertEquals(
-                KmapBuilder.withNumberOfVariables(4).andTermsAt(TermType.MIN_TERM, 0,4,5,9).build().minTerms.stream()
-                .map(Node::getIndex).collect(Collectors.toSet()),
+                IntStream.of(KmapBuilder.withNumberOfVariables(4).andTermsAt(TermType.MIN_TERM, 0,4,5,9).build()
+                .TRUTH_TABLE.termsOf(SolutionType.SUM_OF_PRODUCTS)).boxed().collect(Collectors.toSet()),
                 Set.of(0,4,5,9));
     }
 
@@ -21,8 +40,607 @@ public class KmapTest {
     void minTermsSetTest2() {
         var indexes = Set.of(0,4,5,9);
         Assertions.assertEquals(
-                KmapBuilder.withNumberOfVariables(4).andTermsAt(TermType.MAX_TERM, 0,4,5,9).build().minTerms.stream()
-                        .map(Node::getIndex).collect(Collectors.toSet()),
+                IntStream.of(KmapBuilder.withNumberOfVariables(4).andTermsAt(TermType.MAX_TERM, 0,4,5,9).build()
+                        .TRUTH_TABLE.termsOf(SolutionType.SUM_OF_PRODUCTS)).boxed().collect(Collectors.toSet()),
                 IntStream.range(0, 16).filter(i -> !indexes.contains(i)).boxed().collect(Collectors.toSet()));
     }
+
+    @Test
+    void cellsAreAddressableByIndex() {
+        var kmap = KmapBuilder.withNumberOfVariables(7).andGrayCodeTerms(TermType.MIN_TERM, "0110101").buildSparse();
+        for (int i = 0; i < 128; i++)
+            Assertions.assertEquals(i, kmap.getNodeAt(i).getIndex());
+        Assertions.assertEquals('1', kmap.getNodeAt(0b0110101).getValue());
+
+        var tables = IntStream.range(0, 64).parallel()
+                .mapToObj(i -> new Object[]{GrayCode.inverses(11), Adjacency.of(5, 6)})
+                .collect(Collectors.toList());
+        for (var pair : tables) {
+            Assertions.assertSame(tables.get(0)[0], pair[0]);
+            Assertions.assertSame(tables.get(0)[1], pair[1]);
+        }
+    }
+
+    @Test
+    void quineMcCluskeyFindsMinimalCyclicCover() {
+        var cover = new QuineMcCluskey().minimize(3, new int[] {0, 1, 2, 5, 6, 7}, new int[0]);
+        Assertions.assertEquals(3, cover.size());
+        assertCovers(3, new int[] {0, 1, 2, 5, 6, 7}, new int[0], cover);
+    }
+
+    @Test
+    void enginesCoverExactlyTheTerms() {
+        var random = new Random(7);
+        for (int n = 2; n <= 8; n++) {
+            int size = 1 << n;
+            int[] terms = IntStream.range(0, size).filter(i -> random.nextInt(3) == 0).toArray();
+            int[] dontCares = IntStream.range(0, size).filter(i -> random.nextInt(5) == 0)
+                    .filter(i -> IntStream.of(terms).noneMatch(t -> t == i)).toArray();
+            for (MinimizationEngine engine : List.of(new QuineMcCluskey(), new Espresso()))
+                assertCovers(n, terms, dontCares, engine.minimize(n, terms, dontCares));
+        }
+    }
+
+    @Test
+    void sparseKmapMinimizesWithoutMaterializingCells() {
+        var kmap = KmapBuilder.withNumberOfVariables(16)
+                .andTermsAt(TermType.MIN_TERM, 0, 1, 2, 3, 65535)
+                .withEngine(Engine.QUINE_MCCLUSKEY)
+                .buildSparse();
+        Assertions.assertEquals(
+                Set.of("A\u0305.B\u0305.C\u0305.D\u0305.E\u0305.F\u0305.G\u0305.H\u0305.I\u0305.J\u0305.K\u0305.L\u0305.M\u0305.N\u0305",
+                        "A.B.C.D.E.F.G.H.I.J.K.L.M.N.O.P"),
+                Set.of(kmap.minimize(SolutionType.SUM_OF_PRODUCTS).split(" \\+ ")));
+    }
+
+    @Test
+    void fullAdderOutputsAreMinimizedSeparately() {
+        var adder = KmapBuilder.withVariables("A", "B", "C", "S", "Co")
+                .andGrayCodeTerms(TermType.MIN_TERM, "00000", "00110", "01010", "01101", "10010", "10101", "11001", "11111")
+                .withEngine(Engine.QUINE_MCCLUSKEY)
+                .build();
+        Assertions.assertEquals(Set.of("A.B", "A.C", "B.C"), terms(adder.solveFor("Co", SolutionType.SUM_OF_PRODUCTS)));
+        Assertions.assertEquals(4, terms(adder.solveFor("S", SolutionType.SUM_OF_PRODUCTS)).size());
+    }
+
+    @Test
+    void batchEmitsEveryResult() {
+        var executor = Executors.newFixedThreadPool(3);
+        var random = new Random(11);
+        var specs = IntStream.range(0, 200)
+                .mapToObj(i -> FunctionSpec.of(List.of("A", "B", "C", "D"), TermType.MIN_TERM,
+                        IntStream.range(0, 16).filter(t -> random.nextBoolean()).toArray()))
+                .collect(Collectors.toList());
+        try (var results = BatchMinimizer.withExecutor(executor).withMaxInFlight(4)
+                .minimize(specs.stream(), SolutionType.SUM_OF_PRODUCTS)) {
+            var seen = results.peek(result -> Assertions.assertEquals(
+                            specs.get((int) result.getSequence()).toBuilder().build().minimize(SolutionType.SUM_OF_PRODUCTS),
+                            result.getSolution()))
+                    .map(MinimizationResult::getSequence)
+                    .collect(Collectors.toSet());
+            Assertions.assertEquals(200, seen.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void structurallyIdenticalMapsShareCachedSolutions() {
+        var cache = SolutionCache.shared();
+        var byIndex = KmapBuilder.withNumberOfVariables(5).andTermsAt(TermType.MAX_TERM, 3, 7, 19, 30).build();
+        long misses = cache.getMisses(), hits = cache.getHits();
+        var expected = byIndex.minimize(SolutionType.PRODUCT_OF_SUMS);
+        var byComplement = KmapBuilder.withVariables("V", "W", "X", "Y", "Z")
+                .andTermsAt(TermType.MIN_TERM, IntStream.range(0, 32).filter(i -> !Set.of(3, 7, 19, 30).contains(i)).toArray())
+                .build();
+        Assertions.assertEquals(expected.replace('A', 'V').replace('B', 'W').replace('C', 'X').replace('D', 'Y').replace('E', 'Z'),
+                byComplement.minimize(SolutionType.PRODUCT_OF_SUMS));
+        Assertions.assertEquals(misses + 1, cache.getMisses());
+        Assertions.assertEquals(hits + 1, cache.getHits());
+
+        cache.clear();
+        cache.setMaximumBytes(1 << 12);
+        try {
+            KmapBuilder.withNumberOfVariables(12).andTermsAt(TermType.MIN_TERM, 1, 4000).buildSparse().minimize(SolutionType.SUM_OF_PRODUCTS);
+            Assertions.assertEquals(1, cache.size());
+            KmapBuilder.withNumberOfVariables(16).andTermsAt(TermType.MIN_TERM, 1, 65000).buildSparse().minimize(SolutionType.SUM_OF_PRODUCTS);
+            Assertions.assertEquals(0, cache.size());
+            Assertions.assertEquals(0, cache.bytes());
+        } finally {
+            cache.setMaximumBytes(64L << 20);
+        }
+    }
+
+    @Test
+    void npnEquivalentFunctionsShareACanonicalForm() {
+        int[] terms = {0, 1, 2, 5, 13, 14};
+        int[] permutedAndNegated = IntStream.of(terms).map(i -> ((i & 1) << 3 | (i & 8) >> 3 | (i & 6)) ^ 5).sorted().toArray();
+        int[] complemented = IntStream.range(0, 16).filter(i -> IntStream.of(permutedAndNegated).noneMatch(t -> t == i)).toArray();
+        var original = NpnCanonicalForm.of(new TruthTable(4, TermType.MIN_TERM, terms, new int[0]));
+        for (int[] equivalent : List.of(permutedAndNegated, complemented)) {
+            var form = NpnCanonicalForm.of(new TruthTable(4, TermType.MIN_TERM, equivalent, new int[0]));
+            Assertions.assertEquals(original.getOnSet(), form.getOnSet());
+            var type = form.canonicalSolutionType(SolutionType.SUM_OF_PRODUCTS);
+            var cover = new QuineMcCluskey().minimize(4, form.termsOf(type), new int[0]).stream()
+                    .map(form::toOriginal)
+                    .collect(Collectors.toList());
+            assertCovers(4, equivalent, new int[0], cover);
+        }
+
+        var random = new Random(3);
+        for (int trial = 0; trial < 200; trial++) {
+            int[] on = IntStream.range(0, 64).filter(i -> random.nextInt(3) == 0).toArray();
+            int[] dc = IntStream.range(0, 64).filter(i -> random.nextInt(8) == 0 && Arrays.binarySearch(on, i) < 0).toArray();
+            var variables = IntStream.range(0, 6).boxed().collect(Collectors.toList());
+            Collections.shuffle(variables, random);
+            int negations = random.nextInt(64);
+            IntUnaryOperator transform = i -> IntStream.range(0, 6).map(k -> (i >> k & 1) << variables.get(k)).sum() ^ negations;
+            int[] transformedOn = IntStream.of(on).map(transform).sorted().toArray();
+            int[] transformedDc = IntStream.of(dc).map(transform).sorted().toArray();
+            int[] complementedOn = IntStream.range(0, 64)
+                    .filter(i -> Arrays.binarySearch(transformedOn, i) < 0 && Arrays.binarySearch(transformedDc, i) < 0)
+                    .toArray();
+            var expected = NpnCanonicalForm.of(new TruthTable(6, TermType.MIN_TERM, on, dc));
+            var form = NpnCanonicalForm.of(new TruthTable(6, TermType.MIN_TERM, random.nextBoolean() ? transformedOn : complementedOn, transformedDc));
+            Assertions.assertEquals(expected.getOnSet(), form.getOnSet());
+            Assertions.assertEquals(expected.getDontCares(), form.getDontCares());
+        }
+    }
+
+    @Test
+    void plaAndBlifFilesLoadPerOutput(@TempDir Path directory) throws IOException {
+        var pla = Files.writeString(directory.resolve("adder.pla"), String.join("\n",
+                "# full adder", ".i 3", ".o 2", ".ilb a b c", ".ob s co", ".p 5",
+                "001 10", "010 10", "100 10", "111 11", "-11 01", "1-1 01", "11- 01", ".e"));
+        var blif = Files.writeString(directory.resolve("adder.blif"), String.join("\n",
+                ".model adder", ".inputs a b \\", "c", ".outputs s co",
+                ".names a b t", "10 1", "01 1", ".names t c s", "10 1", "01 1",
+                ".names a b c co", "11- 1", "1-1 1", "-11 1", ".end"));
+        for (var builders : List.of(PlaReader.read(pla), BlifReader.read(blif))) {
+            Assertions.assertEquals(List.of("s", "co"), List.copyOf(builders.keySet()));
+            var sum = builders.get("s").buildSparse();
+            Assertions.assertEquals(List.of("a", "b", "c"), sum.VARIABLES);
+            Assertions.assertArrayEquals(new int[] {1, 2, 4, 7}, sum.TRUTH_TABLE.termsOf(SolutionType.SUM_OF_PRODUCTS));
+            Assertions.assertArrayEquals(new int[] {3, 5, 6, 7},
+                    builders.get("co").buildSparse().TRUTH_TABLE.termsOf(SolutionType.SUM_OF_PRODUCTS));
+        }
+
+        var wide = Files.writeString(directory.resolve("wide.pla"), String.join("\n",
+                ".i 30", ".o 16", "0".repeat(29) + "- " + "1".repeat(16), ".e"));
+        for (var builder : PlaReader.read(wide).values())
+            Assertions.assertArrayEquals(new int[] {0, 1}, builder.buildSparse().TRUTH_TABLE.termsOf(SolutionType.SUM_OF_PRODUCTS));
+    }
+
+    @Test
+    void renderingStreamsTheSameTextAsToString() {
+        var kmap = KmapBuilder.withNumberOfVariables(5).andTermsAt(TermType.MIN_TERM, 0, 3, 17, 30).buildSparse();
+        var bytes = new ByteArrayOutputStream();
+        kmap.render(Channels.newChannel(bytes), Options.values());
+        Assertions.assertEquals(kmap.toString(Options.values()), bytes.toString(StandardCharsets.UTF_8));
+        var writer = new StringWriter();
+        kmap.render(writer, Options.VALUES);
+        Assertions.assertEquals(kmap.toString(), writer.toString());
+    }
+
+    @Test
+    void mutableKmapKeepsPrimesInStepWithEdits() {
+        var random = new Random(12);
+        var kmap = KmapBuilder.withNumberOfVariables(6).andTermsAt(TermType.MIN_TERM, 1, 5, 9, 33, 40).buildMutable();
+        for (int edit = 0; edit < 200; edit++) {
+            kmap.setTerm(random.nextInt(64), TermType.values()[random.nextInt(3)]);
+            var truthTable = kmap.snapshot().TRUTH_TABLE;
+            for (var solutionType : SolutionType.values()) {
+                int[] terms = truthTable.termsOf(solutionType), dontCares = truthTable.getDontCares();
+                Assertions.assertEquals(Set.copyOf(QuineMcCluskey.primeImplicants(6, terms, dontCares)),
+                        kmap.primesOf(solutionType));
+                assertCovers(6, terms, dontCares, kmap.solve(solutionType));
+            }
+        }
+
+        var configured = KmapBuilder.withNumberOfVariables(6)
+                .andTermsAt(TermType.MIN_TERM, 1, 5, 9, 33, 40)
+                .withEngine(Engine.QUINE_MCCLUSKEY)
+                .withTimeLimit(Duration.ofSeconds(2))
+                .withParallelism(2);
+        var snapshot = configured.buildMutable().snapshot();
+        Assertions.assertEquals(Engine.QUINE_MCCLUSKEY, snapshot.ENGINE);
+        Assertions.assertEquals(Duration.ofSeconds(2), snapshot.TIME_LIMIT);
+        Assertions.assertEquals(2, snapshot.PARALLELISM);
+        Assertions.assertEquals(configured.build().solve(SolutionType.SUM_OF_PRODUCTS),
+                configured.buildMutable().solve(SolutionType.SUM_OF_PRODUCTS));
+    }
+
+    @Test
+    void exactCoverFallsBackToBestSoFarWhenTheTimeLimitExpires() {
+        var random = new Random(11);
+        int[] terms = IntStream.range(0, 1 << 11).filter(i -> random.nextDouble() < 0.4).toArray();
+        var cover = Engine.QUINE_MCCLUSKEY.minimize(11, terms, new int[0], Duration.ofMillis(50));
+        assertCovers(11, terms, new int[0], cover);
+
+        int[] dense = IntStream.range(0, 1 << 10).filter(i -> random.nextDouble() < 0.75).toArray();
+        var unbounded = Assertions.assertTimeoutPreemptively(QuineMcCluskey.DEFAULT_TIME_LIMIT.multipliedBy(10),
+                () -> Engine.QUINE_MCCLUSKEY.minimize(10, dense, new int[0]));
+        assertCovers(10, dense, new int[0], unbounded);
+    }
+
+    @Test
+    void timeLimitedSolutionsAreCachedSeparately() {
+        var random = new Random(6);
+        int[] terms = IntStream.range(0, 1 << 9).filter(i -> random.nextDouble() < 0.4).toArray();
+        var builder = KmapBuilder.withNumberOfVariables(9).andTermsAt(TermType.MIN_TERM, terms).withEngine(Engine.QUINE_MCCLUSKEY);
+        var bounded = builder.withTimeLimit(Duration.ZERO).buildSparse();
+        var unbounded = builder.withTimeLimit(null).buildSparse();
+        var truthTable = unbounded.TRUTH_TABLE;
+        Assertions.assertNotEquals(Fingerprint.of(truthTable, SolutionType.SUM_OF_PRODUCTS, Engine.QUINE_MCCLUSKEY, Duration.ZERO),
+                Fingerprint.of(truthTable, SolutionType.SUM_OF_PRODUCTS, Engine.QUINE_MCCLUSKEY, null));
+        Assertions.assertFalse(Arrays.equals(Fingerprint.of(truthTable, SolutionType.SUM_OF_PRODUCTS, Engine.QUINE_MCCLUSKEY, Duration.ZERO).toBytes(),
+                Fingerprint.of(truthTable, SolutionType.SUM_OF_PRODUCTS, Engine.QUINE_MCCLUSKEY, null).toBytes()));
+        bounded.minimize(SolutionType.SUM_OF_PRODUCTS);
+        Assertions.assertEquals(Engine.QUINE_MCCLUSKEY.minimize(9, terms, new int[0]), unbounded.solve(SolutionType.SUM_OF_PRODUCTS));
+    }
+
+    @Test
+    void gridSolverIgnoresTermSetIterationOrder() {
+        int[] ascending = {0, 1, 2, 5, 8, 9, 10, 33, 47, 100, 101, 102, 103, 200, 255};
+        int[] descending = IntStream.range(0, ascending.length).map(i -> ascending[ascending.length - 1 - i]).toArray();
+        Assertions.assertEquals(
+                new KmapSolver(4, 4, ascending, new int[0], new SolverContext()).getSolution(),
+                new KmapSolver(4, 4, descending, new int[0], new SolverContext()).getSolution());
+    }
+
+    @Test
+    void gridSolverStopsWhenEveryCellIsGroupable() {
+        int[] all = IntStream.range(0, 64).toArray();
+        for (int n = 2; n <= 6; n++) {
+            int[] terms = Arrays.copyOf(all, 1 << n);
+            assertCovers(n, terms, new int[0], Engine.KARNAUGH.minimize(n, terms, new int[0]));
+            assertCovers(n, new int[0], terms, Engine.KARNAUGH.minimize(n, new int[0], terms));
+        }
+    }
+
+    @Test
+    void gridEngineCoversRandomMapsExactly() {
+        var random = new Random(17);
+        for (int i = 0; i < 500; i++) {
+            int n = 2 + random.nextInt(7);
+            int[] terms = IntStream.range(0, 1 << n).filter(index -> random.nextInt(3) > 0).toArray();
+            int[] dontCares = IntStream.range(0, 1 << n)
+                    .filter(index -> Arrays.binarySearch(terms, index) < 0 && random.nextInt(4) == 0).toArray();
+            var kmap = KmapBuilder.withNumberOfVariables(n)
+                    .andTermsAt(TermType.MIN_TERM, terms)
+                    .andDontCares(dontCares)
+                    .withEngine(Engine.KARNAUGH)
+                    .buildSparse();
+            for (var solutionType : SolutionType.values())
+                Assertions.assertTrue(kmap.verify(solutionType), n + " variables, " + solutionType);
+        }
+        var seeds = List.of(new Cube(0, 0));
+        int[] terms = {0, 1, 3, 4, 5, 6, 7, 8, 9, 10, 11, 14, 15};
+        assertCovers(4, terms, new int[0], Espresso.refine(4, seeds, terms, new int[0]));
+    }
+
+    @Test
+    void metricsReportPhasesAndCountersToListeners() {
+        var phases = EnumSet.noneOf(Phase.class);
+        var counters = EnumSet.noneOf(Counter.class);
+        var listener = new MinimizerListener() {
+            @Override
+            public void onPhase(Phase phase, long nanos) {
+                phases.add(phase);
+            }
+
+            @Override
+            public void onCount(Counter counter, long amount) {
+                counters.add(counter);
+            }
+        };
+        Metrics.reset();
+        Metrics.addListener(listener);
+        Metrics.enable();
+        try {
+            var kmap = KmapBuilder.withNumberOfVariables(8).andTermsAt(TermType.MIN_TERM, 3, 7, 11, 200, 201).build();
+            kmap.minimize(SolutionType.SUM_OF_PRODUCTS);
+            kmap.toString();
+            Metrics.time(Phase.BUILD, 0);
+        } finally {
+            Metrics.disable();
+            Metrics.removeListener(listener);
+        }
+        Assertions.assertEquals(EnumSet.allOf(Phase.class), phases);
+        Assertions.assertTrue(counters.containsAll(EnumSet.of(Counter.GROUP_CANDIDATES, Counter.IMPLICANTS)));
+        Assertions.assertEquals(1, Metrics.histogram(Phase.BUILD).getCount());
+        Assertions.assertEquals(1, Metrics.histogram(Phase.GROUPING).getCount());
+        Assertions.assertEquals(1, Metrics.histogram(Phase.REDUCTION).getCount());
+        Assertions.assertTrue(Metrics.count(Counter.IMPLICANTS) >= 2);
+    }
+
+    @Test
+    void dontCaresGrowImplicantsWithoutBeingRequired() {
+        for (var engine : Engine.values()) {
+            var kmap = KmapBuilder.withNumberOfVariables(4)
+                    .andTermsAt(TermType.MIN_TERM, 1, 3, 5, 7, 9)
+                    .andDontCareGrayCodes("101-", "11--")
+                    .withEngine(engine)
+                    .build();
+            Assertions.assertArrayEquals(new int[] {10, 11, 12, 13, 14, 15}, kmap.TRUTH_TABLE.getDontCares());
+            Assertions.assertEquals("D", kmap.minimize(SolutionType.SUM_OF_PRODUCTS), engine.name());
+        }
+        Assertions.assertThrows(IllegalStateException.class, () -> KmapBuilder.withNumberOfVariables(4).andDontCares(16));
+        Assertions.assertThrows(IllegalStateException.class, () -> KmapBuilder.withNumberOfVariables(4).andTermsAt(TermType.MIN_TERM, 16));
+        Assertions.assertThrows(IllegalStateException.class, () -> KmapBuilder.withNumberOfVariables(4)
+                .andTermsAt(TermType.MIN_TERM, 1)
+                .andTermsAt(TermType.MAX_TERM, 2)
+                .build());
+    }
+
+    @Test
+    void emptyCoversRenderAsTheOppositeConstant() {
+        for (var engine : Engine.values()) {
+            var zero = KmapBuilder.withNumberOfVariables(4)
+                    .andTermsAt(TermType.MAX_TERM, IntStream.range(0, 16).toArray())
+                    .withEngine(engine)
+                    .build();
+            var one = KmapBuilder.withNumberOfVariables(4)
+                    .andTermsAt(TermType.MIN_TERM, IntStream.range(0, 16).toArray())
+                    .withEngine(engine)
+                    .build();
+            Assertions.assertEquals("0", zero.minimize(SolutionType.SUM_OF_PRODUCTS), engine.name());
+            Assertions.assertEquals(List.of("0"), zero.getSolution(SolutionType.SUM_OF_PRODUCTS).getTerms(), engine.name());
+            Assertions.assertEquals(0, zero.getSolution(SolutionType.SUM_OF_PRODUCTS).getTermCount(), engine.name());
+            Assertions.assertEquals("1", one.minimize(SolutionType.PRODUCT_OF_SUMS), engine.name());
+            Assertions.assertEquals("1", one.minimize(SolutionType.SUM_OF_PRODUCTS), engine.name());
+            Assertions.assertEquals("0", zero.minimize(SolutionType.PRODUCT_OF_SUMS), engine.name());
+        }
+        Assertions.assertEquals("0", BddFunction.withNumberOfVariables(20).minimize(SolutionType.SUM_OF_PRODUCTS));
+    }
+
+    @Test
+    void codecRoundTripsDefinitionsAndSolutions() {
+        var random = new Random(18);
+        for (double density : new double[] {0.02, 0.6}) {
+            int[] terms = IntStream.range(0, 512).filter(i -> random.nextDouble() < density).toArray();
+            var kmap = KmapBuilder.withVariables("a", "b", "c", "d", "e", "f", "g", "h", "i")
+                    .andTermsAt(TermType.MIN_TERM, terms)
+                    .andDontCares(3, 99, 500)
+                    .withEngine(Engine.ESPRESSO)
+                    .withTimeLimit(Duration.ofMillis(250))
+                    .withParallelism(3)
+                    .buildSparse();
+            var buffer = ByteBuffer.allocate(1024);
+            KmapCodec.write(kmap, SolutionType.PRODUCT_OF_SUMS, buffer);
+            var decoded = KmapCodec.read(buffer.flip());
+            Assertions.assertFalse(buffer.hasRemaining());
+            Assertions.assertEquals(kmap.VARIABLES, decoded.VARIABLES);
+            Assertions.assertEquals(Engine.ESPRESSO, decoded.ENGINE);
+            Assertions.assertEquals(Duration.ofMillis(250), decoded.TIME_LIMIT);
+            Assertions.assertEquals(3, decoded.PARALLELISM);
+            Assertions.assertArrayEquals(kmap.TRUTH_TABLE.termsOf(SolutionType.SUM_OF_PRODUCTS),
+                    decoded.TRUTH_TABLE.termsOf(SolutionType.SUM_OF_PRODUCTS));
+            Assertions.assertArrayEquals(kmap.TRUTH_TABLE.getDontCares(), decoded.TRUTH_TABLE.getDontCares());
+            Assertions.assertEquals(kmap.solve(SolutionType.PRODUCT_OF_SUMS), decoded.solve(SolutionType.PRODUCT_OF_SUMS));
+        }
+        var buffer = ByteBuffer.allocate(64);
+        KmapCodec.write(KmapBuilder.withNumberOfVariables(2).andTermsAt(TermType.MIN_TERM, 1).build(), buffer);
+        buffer.flip();
+        Assertions.assertNull(KmapCodec.read(buffer.duplicate()).TIME_LIMIT);
+        for (byte engine : new byte[] {(byte) Engine.values().length, -1}) {
+            var corrupt = buffer.duplicate().put(4, engine);
+            Assertions.assertThrows(IllegalStateException.class, () -> KmapCodec.read(corrupt));
+        }
+    }
+
+    @Test
+    void solutionStoreSurvivesReopening(@TempDir Path directory) {
+        var random = new Random(19);
+        var fingerprints = new ArrayList<Fingerprint>();
+        var solutions = new ArrayList<List<Cube>>();
+        try (var store = SolutionStore.open(directory)) {
+            for (int i = 0; i < 1500; i++) {
+                int[] terms = IntStream.range(0, 128).filter(index -> random.nextDouble() < 0.3).toArray();
+                var truthTable = new TruthTable(7, TermType.MIN_TERM, terms, new int[0]);
+                var fingerprint = Fingerprint.of(truthTable, SolutionType.SUM_OF_PRODUCTS, Engine.ESPRESSO, null);
+                var solution = Engine.ESPRESSO.minimize(7, terms, new int[0]);
+                store.put(fingerprint, solution);
+                fingerprints.add(fingerprint);
+                solutions.add(solution);
+            }
+        }
+        try (var store = SolutionStore.open(directory)) {
+            Assertions.assertEquals(1500, store.size());
+            for (int i = 0; i < fingerprints.size(); i++)
+                Assertions.assertEquals(solutions.get(i), store.get(fingerprints.get(i)));
+            SolutionCache.shared().clear();
+            SolutionCache.shared().setStore(store);
+            try {
+                var kmap = KmapBuilder.withNumberOfVariables(8).andTermsAt(TermType.MIN_TERM, 1, 2, 3, 200).buildSparse();
+                var expected = kmap.minimize(SolutionType.SUM_OF_PRODUCTS);
+                Assertions.assertEquals(1501, store.size());
+                SolutionCache.shared().clear();
+                var reloaded = KmapBuilder.withNumberOfVariables(8).andTermsAt(TermType.MIN_TERM, 1, 2, 3, 200).buildSparse();
+                Assertions.assertEquals(expected, reloaded.minimize(SolutionType.SUM_OF_PRODUCTS));
+                Assertions.assertEquals(1501, store.size());
+                Assertions.assertEquals(1, SolutionCache.shared().getStoreHits());
+                Assertions.assertEquals(0, SolutionCache.shared().getMisses());
+            } finally {
+                SolutionCache.shared().setStore(null);
+            }
+        }
+    }
+
+    @Test
+    void compiledCoverVerifiesEveryAssignment() {
+        var random = new Random(20);
+        for (int n = 2; n <= 13; n++) {
+            int size = 1 << n;
+            int[] terms = IntStream.range(0, size).filter(i -> random.nextDouble() < 0.3).toArray();
+            int[] dontCares = IntStream.range(0, size).filter(i -> random.nextDouble() < 0.1).toArray();
+            for (var solutionType : SolutionType.values()) {
+                var kmap = KmapBuilder.withNumberOfVariables(n)
+                        .andTermsAt(TermType.MIN_TERM, terms)
+                        .andDontCares(dontCares)
+                        .withEngine(Engine.ESPRESSO)
+                        .buildSparse();
+                Assertions.assertTrue(kmap.verify(solutionType));
+                var cubes = kmap.solve(solutionType);
+                var broken = cubes.subList(1, cubes.size());
+                long expected = IntStream.range(0, size)
+                        .filter(i -> kmap.TRUTH_TABLE.valueAt(i) != 'x')
+                        .filter(i -> (kmap.TRUTH_TABLE.valueAt(i) == solutionType.VALUE) != broken.stream().anyMatch(cube -> cube.covers(i)))
+                        .findFirst()
+                        .orElse(Integer.MAX_VALUE);
+                long mismatch = CompiledCover.firstMismatch(kmap, solutionType, broken);
+                Assertions.assertEquals(expected, mismatch == Long.MAX_VALUE ? Integer.MAX_VALUE : mismatch);
+            }
+        }
+    }
+
+    @Test
+    void bddFunctionsMinimizeWideInputsFromTheirStructure() {
+        var random = new Random(21);
+        for (int n = 2; n <= 9; n++) {
+            int size = 1 << n;
+            int[] terms = IntStream.range(0, size).filter(i -> random.nextInt(3) == 0).toArray();
+            int[] dontCares = IntStream.range(0, size).filter(i -> Arrays.binarySearch(terms, i) < 0 && random.nextInt(5) == 0).toArray();
+            assertCovers(n, terms, dontCares, Engine.BDD.minimize(n, terms, dontCares));
+        }
+
+        var pairs = new String[20];
+        for (int i = 0; i < pairs.length; i++)
+            pairs[i] = "-".repeat(2 * i) + "11" + "-".repeat(38 - 2 * i);
+        var function = BddFunction.withNumberOfVariables(40).andGrayCodeTerms(TermType.MIN_TERM, pairs);
+        var expected = IntStream.range(0, 20).mapToObj(i -> "X" + 2 * i + ".X" + (2 * i + 1)).collect(Collectors.toSet());
+        Assertions.assertEquals(expected, Set.of(function.minimize(SolutionType.SUM_OF_PRODUCTS).split(" \\+ ")));
+        Assertions.assertTrue(function.getNodeCount() <= 60);
+
+        var products = BddFunction.withNumberOfVariables(34)
+                .andGrayCodeTerms(TermType.MAX_TERM, "0" + "-".repeat(33), "-0" + "-".repeat(32))
+                .andDontCareGrayCodes("11" + "0".repeat(32));
+        Assertions.assertEquals(Set.of("X0", "X1"), Set.of(products.minimize(SolutionType.PRODUCT_OF_SUMS).split("\\.")));
+        Assertions.assertEquals("X0.X1", products.minimize(SolutionType.SUM_OF_PRODUCTS));
+    }
+
+    @Test
+    void mergeKernelAgreesWithImplicitPrimeEnumeration() {
+        var random = new Random(22);
+        for (int n : new int[] {3, 7, 12}) {
+            int[] terms = IntStream.range(0, 1 << n).filter(i -> random.nextInt(3) > 0).toArray();
+            int[] dontCares = IntStream.range(0, 1 << n).filter(i -> Arrays.binarySearch(terms, i) < 0 && random.nextBoolean()).toArray();
+            Assertions.assertTrue(MergeKernel.suits(n, terms.length + dontCares.length));
+            var primes = QuineMcCluskey.primeImplicants(n, terms, dontCares);
+            Assertions.assertEquals(primes.size(), Set.copyOf(primes).size());
+            Assertions.assertEquals(Set.copyOf(BddEngine.primeImplicants(n, terms, dontCares)), Set.copyOf(primes));
+        }
+    }
+
+    @Test
+    void parallelPrimeGenerationMatchesTheSequentialResult() {
+        var random = new Random(23);
+        int n = 21;
+        int[] terms = random.ints(3 * ParallelPrimes.SEQUENTIAL_CUTOFF, 0, 1 << n).sorted().distinct().toArray();
+        int[] dontCares = random.ints(ParallelPrimes.SEQUENTIAL_CUTOFF, 0, 1 << n)
+                .filter(i -> Arrays.binarySearch(terms, i) < 0).sorted().distinct().toArray();
+        var sequential = QuineMcCluskey.primeImplicants(n, terms, dontCares, 1);
+        var parallel = QuineMcCluskey.primeImplicants(n, terms, dontCares, 3);
+        Assertions.assertEquals(sequential.size(), parallel.size());
+        Assertions.assertEquals(Set.copyOf(sequential), Set.copyOf(parallel));
+
+        int[] dense = IntStream.range(0, 1 << 14).filter(i -> random.nextBoolean()).toArray();
+        Assertions.assertTrue(MergeKernel.suits(14, dense.length));
+        var kernel = QuineMcCluskey.primeImplicants(14, dense, new int[0], 1);
+        var forked = QuineMcCluskey.primeImplicants(14, dense, new int[0], 3);
+        Assertions.assertEquals(kernel.size(), forked.size());
+        Assertions.assertEquals(Set.copyOf(kernel), Set.copyOf(forked));
+
+        var kmap = KmapBuilder.withNumberOfVariables(n)
+                .andTermsAt(TermType.MIN_TERM, terms)
+                .withEngine(Engine.QUINE_MCCLUSKEY)
+                .withParallelism(3)
+                .buildSparse();
+        Assertions.assertEquals(3, kmap.PARALLELISM);
+        Assertions.assertTrue(kmap.verify(SolutionType.SUM_OF_PRODUCTS));
+        Assertions.assertThrows(IllegalStateException.class, () -> KmapBuilder.withNumberOfVariables(4).withParallelism(0));
+    }
+
+    @Test
+    void solverContextIsReusedAcrossSolves() throws Exception {
+        var random = new Random(24);
+        var context = new SolverContext();
+        for (int n = 4; n <= 10; n++) {
+            int[] terms = IntStream.range(0, 1 << n).filter(i -> random.nextInt(3) == 0).toArray();
+            int[] dontCares = IntStream.range(0, 1 << n).filter(i -> Arrays.binarySearch(terms, i) < 0 && random.nextInt(6) == 0).toArray();
+            for (var engine : List.of(Engine.KARNAUGH, Engine.ESPRESSO)) {
+                var kmap = KmapBuilder.withNumberOfVariables(n)
+                        .andTermsAt(TermType.MIN_TERM, terms)
+                        .andDontCares(dontCares)
+                        .withEngine(engine)
+                        .buildSparse();
+                for (var solutionType : SolutionType.values())
+                    Assertions.assertEquals(engine.minimize(kmap, solutionType), engine.minimize(kmap, solutionType, context));
+            }
+        }
+        SolutionCache.shared().clear();
+        var small = new SolverContext();
+        KmapBuilder.withNumberOfVariables(5)
+                .andTermsAt(TermType.MIN_TERM, 0, 1, 2, 7, 12, 13, 30)
+                .buildSparse()
+                .minimize(SolutionType.SUM_OF_PRODUCTS, small);
+        Assertions.assertEquals(32, small.valid(0).length);
+
+        var kmap = KmapBuilder.withNumberOfVariables(8).andTermsAt(TermType.MIN_TERM, 1, 2, 3).buildSparse();
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var failure = executor.submit(() -> Engine.KARNAUGH.minimize(kmap, SolutionType.SUM_OF_PRODUCTS, context));
+            var thrown = Assertions.assertThrows(ExecutionException.class, failure::get);
+            Assertions.assertTrue(thrown.getCause() instanceof IllegalStateException);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void solutionsExposeCubesAndCostBeforeRendering() {
+        var kmap = KmapBuilder.withNumberOfVariables(4)
+                .andTermsAt(TermType.MIN_TERM, 1, 3, 5, 7, 9)
+                .andDontCareGrayCodes("101-", "11--")
+                .build();
+        var solution = kmap.getSolution(SolutionType.SUM_OF_PRODUCTS);
+        Assertions.assertSame(solution, kmap.getSolution(SolutionType.SUM_OF_PRODUCTS));
+        Assertions.assertEquals(1, solution.getTermCount());
+        Assertions.assertEquals(1, solution.getLiteralCount());
+        Assertions.assertEquals(2, solution.getCost());
+        Assertions.assertEquals(0b0001, solution.getCubes().get(0).getMask());
+        Assertions.assertTrue(solution.getCubes().get(0).covers(9));
+        Assertions.assertEquals(List.of("D"), solution.getTerms());
+        Assertions.assertSame(solution.toString(), kmap.minimize(SolutionType.SUM_OF_PRODUCTS));
+
+        var adder = KmapBuilder.withVariables("A", "B", "C", "S", "Co")
+                .andGrayCodeTerms(TermType.MIN_TERM, "00000", "00110", "01010", "01101", "10010", "10101", "11001", "11111")
+                .build();
+        var outputs = adder.getOutputSolutions(SolutionType.SUM_OF_PRODUCTS);
+        Assertions.assertEquals(List.of("S", "Co"), List.copyOf(outputs.keySet()));
+        Assertions.assertEquals(List.of("A", "B", "C"), outputs.get("Co").getVariables());
+        Assertions.assertEquals(Set.of("A.B", "A.C", "B.C"), Set.copyOf(outputs.get("Co").getTerms()));
+        Assertions.assertEquals(9, outputs.get("Co").getCost());
+        Assertions.assertEquals("Co = " + outputs.get("Co") + "\n", adder.solveFor("Co", SolutionType.SUM_OF_PRODUCTS));
+
+        var ones = KmapBuilder.withNumberOfVariables(3).andTermsAt(TermType.MIN_TERM, 0, 1, 2, 3, 4, 5, 6, 7).build();
+        Assertions.assertEquals(List.of("1"), ones.getSolution(SolutionType.SUM_OF_PRODUCTS).getTerms());
+        var zeros = KmapBuilder.withNumberOfVariables(3).andTermsAt(TermType.MAX_TERM, 0, 1, 2, 3, 4, 5, 6, 7).build();
+        Assertions.assertEquals("0", zeros.minimize(SolutionType.PRODUCT_OF_SUMS));
+    }
+
+    private static Set<String> terms(String solution) {
+        return Set.of(solution.substring(solution.indexOf('=') + 2).strip().split(" \\+ "));
+    }
+
+    private static void assertCovers(int n, int[] terms, int[] dontCares, List<Cube> cover) {
+        var termSet = IntStream.of(terms).boxed().collect(Collectors.toSet());
+        var dontCareSet = IntStream.of(dontCares).boxed().collect(Collectors.toSet());
+        for (int i = 0; i < 1 << n; i++) {
+            long index = i;
+            boolean covered = cover.stream().anyMatch(cube -> cube.covers(index));
+            if (!dontCareSet.contains(i))
+                Assertions.assertEquals(termSet.contains(i), covered, "index " + i);
+        }
+    }
 }